@@ -1,7 +1,9 @@
 package dev.shanuka.thesweetcupcakeshop;
 
 import com.formdev.flatlaf.FlatLightLaf;
+import dev.shanuka.thesweetcupcakeshop.util.DataStore;
 import dev.shanuka.thesweetcupcakeshop.util.FormManager;
+import dev.shanuka.thesweetcupcakeshop.util.Messages;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
@@ -19,6 +21,11 @@ public class Main {
         } catch (Exception ex) {
             System.err.println("Failed to initialize LaF");
         }
+
+        // Report data files that fail to compact in the background
+        DataStore.setBackgroundErrorHandler(error -> SwingUtilities.invokeLater(() -> {
+            Messages.showError(null, "Data Error", error.getMessage());
+        }));
         
         // Show the login form asynchronously
         SwingUtilities.invokeLater(() -> {
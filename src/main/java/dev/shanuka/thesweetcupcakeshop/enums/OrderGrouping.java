@@ -0,0 +1,20 @@
+package dev.shanuka.thesweetcupcakeshop.enums;
+
+/**
+ * Enum representing how orders are grouped in a sales report.
+ * 
+ * ITEM: By item name
+ * CATEGORY: By the category of the item
+ * DAY: By the day the order was placed
+ * HOUR_OF_DAY: By the hour of the day the order was placed (0 - 23)
+ * WEEKDAY: By the day of the week the order was placed
+ * 
+ * @author Shanuka
+ */
+public enum OrderGrouping {
+    ITEM,
+    CATEGORY,
+    DAY,
+    HOUR_OF_DAY,
+    WEEKDAY
+}
@@ -0,0 +1,14 @@
+package dev.shanuka.thesweetcupcakeshop.enums;
+
+/**
+ * Enum representing the measure used to rank items by sales.
+ * 
+ * REVENUE: Total amount of the item's orders
+ * QUANTITY: Number of units sold
+ * 
+ * @author Shanuka
+ */
+public enum SalesMetric {
+    REVENUE,
+    QUANTITY
+}
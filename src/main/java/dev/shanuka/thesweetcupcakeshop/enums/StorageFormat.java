@@ -0,0 +1,14 @@
+package dev.shanuka.thesweetcupcakeshop.enums;
+
+/**
+ * Enum representing the formats a data file can be stored in.
+ * 
+ * TEXT: Human readable "key: value" blocks (*.txt)
+ * BINARY: Compact length-prefixed records with a schema header (*.bin)
+ * 
+ * @author Shanuka
+ */
+public enum StorageFormat {
+    TEXT,
+    BINARY
+}
@@ -0,0 +1,16 @@
+package dev.shanuka.thesweetcupcakeshop.enums;
+
+/**
+ * Enum representing when writes to a data store are flushed to disk (fsync).
+ * 
+ * ALWAYS: Every write is flushed before it returns
+ * BATCHED: Writes are flushed together at a fixed interval
+ * NEVER: Flushing is left to the operating system
+ * 
+ * @author Shanuka
+ */
+public enum SyncPolicy {
+    ALWAYS,
+    BATCHED,
+    NEVER
+}
@@ -9,7 +9,7 @@ public class Item {
     private Integer id;
     private String name;
     private String category;
-    private Double price;
+    private Money price;
 
     /**
      * Default constructor
@@ -24,7 +24,7 @@ public class Item {
      * @param name The name of the item
      * @param price The price of the item
      */
-    public Item(Integer id, String name, String category, Double price) {
+    public Item(Integer id, String name, String category, Money price) {
         this.id = id;
         this.name = name;
         this.category = category;
@@ -43,7 +43,7 @@ public class Item {
         return category;
     }
 
-    public Double getPrice() {
+    public Money getPrice() {
         return price;
     }
 }
\ No newline at end of file
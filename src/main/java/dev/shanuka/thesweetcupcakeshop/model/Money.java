@@ -0,0 +1,113 @@
+package dev.shanuka.thesweetcupcakeshop.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money, held as a whole number of minor units (cents), so that
+ * sums are exact and don't drift the way floating point amounts do.
+ *
+ * @author Shanuka
+ */
+public final class Money implements Comparable<Money> {
+
+    /** Number of decimal places of an amount */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * @param minorUnits Amount in minor units (e.g. 35050 for 350.50).
+     * @return The amount.
+     */
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Parses an amount written in major units (e.g. "350.5"). Extra decimal
+     * places are rounded half up.
+     *
+     * @param text The amount.
+     * @return The parsed amount.
+     * @throws NumberFormatException if the text is not a valid amount.
+     */
+    public static Money parse(String text) {
+        try {
+            return ofMinorUnits(new BigDecimal(text.trim())
+                    .setScale(SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Converts an amount that was stored as a floating point number in major
+     * units (i.e. by earlier versions of the data files).
+     *
+     * @param amount The amount.
+     * @return The amount rounded to the nearest minor unit.
+     */
+    public static Money fromDouble(double amount) {
+        return ofMinorUnits(Math.round(amount * 100));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long factor) {
+        return ofMinorUnits(Math.multiplyExact(minorUnits, factor));
+    }
+
+    /**
+     * @param divisor The divisor (e.g. a number of orders).
+     * @return The amount divided by the divisor, rounded half up to the
+     * nearest minor unit.
+     */
+    public Money dividedBy(long divisor) {
+        return ofMinorUnits(toBigDecimal().divide(BigDecimal.valueOf(divisor), SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * @return The amount in major units (e.g. for formatting).
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * @return The amount in major units (e.g. "350.50").
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -12,9 +12,9 @@ public class Order {
     private Integer id;
     private Date date;
     private String item;
-    private Double itemPrice;
+    private Money itemPrice;
     private Integer quantity;
-    private Double totalAmount;
+    private Money totalAmount;
 
     /**
      * Default constructor
@@ -32,7 +32,7 @@ public class Order {
      * @param quantity The number of items
      * @param totalAmount The total price for this order line
      */
-    public Order(Integer id, Date date, String item, Double itemPrice, Integer quantity, Double totalAmount) {
+    public Order(Integer id, Date date, String item, Money itemPrice, Integer quantity, Money totalAmount) {
         this.id = id;
         this.date = date;
         this.item = item;
@@ -41,6 +41,16 @@ public class Order {
         this.totalAmount = totalAmount;
     }
 
+    /**
+     * Creates a copy of this order with a different ID.
+     *
+     * @param id The new order ID
+     * @return The copy
+     */
+    public Order withId(Integer id) {
+        return new Order(id, date, item, itemPrice, quantity, totalAmount);
+    }
+
     public Integer getId() {
         return id;
     }
@@ -53,7 +63,7 @@ public class Order {
         return item;
     }
 
-    public Double getItemPrice() {
+    public Money getItemPrice() {
         return itemPrice;
     }
 
@@ -61,7 +71,7 @@ public class Order {
         return quantity;
     }
 
-    public Double getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
 }
\ No newline at end of file
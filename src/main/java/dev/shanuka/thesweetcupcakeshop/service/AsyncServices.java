@@ -0,0 +1,154 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.enums.SalesMetric;
+import dev.shanuka.thesweetcupcakeshop.enums.UserRole;
+import dev.shanuka.thesweetcupcakeshop.model.Category;
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.model.User;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Asynchronous facade over the inventory, order and user services, so that
+ * the views never wait for the data files on the Swing event dispatch thread.
+ *
+ * Every call runs on a single background I/O thread, in the order the calls
+ * were made. A reload requested after a change therefore always sees the
+ * change. The returned futures complete on that thread; use
+ * {@link dev.shanuka.thesweetcupcakeshop.util.SwingAsync} to continue on the
+ * event dispatch thread.
+ *
+ * A future that fails completes exceptionally with the error thrown by the
+ * service (ApplicationError, NotFoundError or DuplicateEntryError).
+ *
+ * @author Shanuka
+ */
+public final class AsyncServices {
+
+    // Runs the service calls (one daemon thread, so pending calls don't keep the application alive)
+    private static final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "service-io");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * A service call that may fail.
+     */
+    @FunctionalInterface
+    public interface ServiceCall<T> {
+
+        T call() throws Exception;
+    }
+
+    private AsyncServices() { }
+
+    /**
+     * Runs a service call (or several, e.g. to load everything a view shows)
+     * on the I/O thread.
+     *
+     * @param call The call.
+     * @return A future that completes with the call's result, or
+     * exceptionally with the error it throws
+     */
+    public static <T> CompletableFuture<T> supply(ServiceCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        ioExecutor.execute(() -> {
+            try {
+                future.complete(call.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    // Inventory
+
+    public static CompletableFuture<List<Item>> getAllItems() {
+        return supply(InventoryService::getAllItems);
+    }
+
+    public static CompletableFuture<Void> addItem(String name, String category, Money price) {
+        return supply(() -> {
+            InventoryService.addItem(name, category, price);
+            return null;
+        });
+    }
+
+    /**
+     * @return A future that completes with the name of the removed item
+     */
+    public static CompletableFuture<String> removeItem(Integer itemId) {
+        return supply(() -> InventoryService.removeItem(itemId));
+    }
+
+    public static CompletableFuture<List<Category>> getAllCategories() {
+        return supply(InventoryService::getAllCategories);
+    }
+
+    public static CompletableFuture<Void> addCategory(String categoryName) {
+        return supply(() -> {
+            InventoryService.addCategory(categoryName);
+            return null;
+        });
+    }
+
+    /**
+     * @return A future that completes with the name of the removed category
+     */
+    public static CompletableFuture<String> removeCategory(Integer categoryId) {
+        return supply(() -> InventoryService.removeCategory(categoryId));
+    }
+
+    // Orders
+
+    public static CompletableFuture<Integer> peekNextOrderId() {
+        return supply(OrderService::peekNextOrderId);
+    }
+
+    public static CompletableFuture<List<Order>> getLatestOrders(int count) {
+        return supply(() -> OrderService.getLatestOrders(count));
+    }
+
+    public static CompletableFuture<SalesAggregates.Totals> getDailySales(LocalDate day) {
+        return supply(() -> OrderService.getDailySales(day));
+    }
+
+    public static CompletableFuture<SalesAggregates.Totals> getMonthlySales(YearMonth month) {
+        return supply(() -> OrderService.getMonthlySales(month));
+    }
+
+    public static CompletableFuture<List<BestSellers.Entry>> getBestSellers(LocalDate from, LocalDate to, SalesMetric metric, int count) {
+        return supply(() -> OrderService.getBestSellers(from, to, metric, count));
+    }
+
+    // Users
+
+    public static CompletableFuture<List<User>> getAllUsers() {
+        return supply(UserService::getAllUsers);
+    }
+
+    public static CompletableFuture<Void> addUser(UserRole role, String firstName, String lastName, String email, String password) {
+        return supply(() -> {
+            UserService.addUser(role, firstName, lastName, email, password);
+            return null;
+        });
+    }
+
+    /**
+     * @return A future that completes with the name of the removed user
+     */
+    public static CompletableFuture<String> removeUser(Integer userId) {
+        return supply(() -> UserService.removeUser(userId));
+    }
+}
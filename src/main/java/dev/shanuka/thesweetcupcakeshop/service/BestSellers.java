@@ -0,0 +1,234 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.enums.SalesMetric;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
+import dev.shanuka.thesweetcupcakeshop.util.SpaceSaving;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Best selling items by revenue and by quantity, kept in sync with the orders
+ * data store.
+ *
+ * Exact rankings are computed from per-day sales of each item, so a query
+ * only visits the days within its range. Approximate rankings over the whole
+ * order history come from Space-Saving summaries, which are updated in
+ * constant space as each order is committed.
+ *
+ * Days are taken in the system time zone.
+ *
+ * @author Shanuka
+ */
+public final class BestSellers implements DataStoreListener<Order> {
+
+    // Number of items tracked by the approximate summaries
+    private static final int SUMMARY_CAPACITY = 64;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Sales of each item, by day
+    private final NavigableMap<LocalDate, Map<String, ItemSales>> dailySales = new TreeMap<>();
+
+    // Approximate sales of the best selling items over the whole history
+    private final SpaceSaving<String> revenueSummary = new SpaceSaving<>(SUMMARY_CAPACITY);
+    private final SpaceSaving<String> quantitySummary = new SpaceSaving<>(SUMMARY_CAPACITY);
+
+    /**
+     * Ranks the items sold within a range of days.
+     *
+     * @param from First day of the range (inclusive).
+     * @param to Last day of the range (exclusive).
+     * @param metric Measure to rank the items by.
+     * @param count Maximum number of items to return.
+     * @return Up to count items, best selling first.
+     */
+    public synchronized List<Entry> getTop(LocalDate from, LocalDate to, SalesMetric metric, int count) {
+        // Total the sales of each item over the range
+        Map<String, ItemSales> rangeSales = new HashMap<>();
+
+        for (Map<String, ItemSales> daySales : dailySales.subMap(from, true, to, false).values()) {
+            for (Map.Entry<String, ItemSales> itemSales : daySales.entrySet()) {
+                rangeSales.computeIfAbsent(itemSales.getKey(), item -> new ItemSales()).add(itemSales.getValue());
+            }
+        }
+
+        // Keep the best count items in a min-heap (worst of the best on top)
+        Comparator<Map.Entry<String, ItemSales>> byMetric = Comparator.comparingLong(itemSales -> itemSales.getValue().get(metric));
+        PriorityQueue<Map.Entry<String, ItemSales>> best = new PriorityQueue<>(byMetric);
+
+        for (Map.Entry<String, ItemSales> itemSales : rangeSales.entrySet()) {
+            if (best.size() < count) {
+                best.add(itemSales);
+            } else if (count > 0 && byMetric.compare(itemSales, best.peek()) > 0) {
+                best.poll();
+                best.add(itemSales);
+            }
+        }
+
+        List<Entry> top = new ArrayList<>(best.size());
+
+        while (!best.isEmpty()) {
+            Map.Entry<String, ItemSales> itemSales = best.poll();
+            top.add(new Entry(itemSales.getKey(), itemSales.getValue().get(metric), 0));
+        }
+
+        Collections.reverse(top);
+
+        return top;
+    }
+
+    /**
+     * Totals the quantity sold of each item within a range of days.
+     *
+     * @param from First day of the range (inclusive).
+     * @param to Last day of the range (exclusive).
+     * @return Quantity sold of each item sold within the range, by item name.
+     */
+    public synchronized Map<String, Long> getQuantities(LocalDate from, LocalDate to) {
+        Map<String, Long> quantities = new HashMap<>();
+
+        for (Map<String, ItemSales> daySales : dailySales.subMap(from, true, to, false).values()) {
+            for (Map.Entry<String, ItemSales> itemSales : daySales.entrySet()) {
+                quantities.merge(itemSales.getKey(), itemSales.getValue().quantity, Long::sum);
+            }
+        }
+
+        return quantities;
+    }
+
+    /**
+     * Ranks the items sold over the whole order history, approximately.
+     *
+     * @param metric Measure to rank the items by.
+     * @param count Maximum number of items to return.
+     * @return Up to count items, best selling first. Each value may be
+     * overestimated by at most its error.
+     */
+    public synchronized List<Entry> getApproximateTop(SalesMetric metric, int count) {
+        List<Entry> top = new ArrayList<>();
+
+        for (SpaceSaving.Counter<String> counter : summaryFor(metric).top(count)) {
+            top.add(new Entry(counter.getKey(), counter.getCount(), counter.getError()));
+        }
+
+        return top;
+    }
+
+    @Override
+    public synchronized void dataLoaded(List<Order> orders) {
+        dailySales.clear();
+        revenueSummary.clear();
+        quantitySummary.clear();
+
+        for (Order order : orders) {
+            apply(order, 1);
+        }
+    }
+
+    @Override
+    public synchronized void objectsAdded(List<Order> orders) {
+        for (Order order : orders) {
+            apply(order, 1);
+        }
+    }
+
+    @Override
+    public synchronized void objectRemoved(Order order) {
+        apply(order, -1);
+    }
+
+    // Adds (sign = 1) or subtracts (sign = -1) an order from the sales of its item
+    private void apply(Order order, int sign) {
+        if (order.getDate() == null || order.getItem() == null) {
+            return;
+        }
+
+        long revenue = order.getTotalAmount() != null ? order.getTotalAmount().getMinorUnits() : 0;
+        long quantity = order.getQuantity() != null ? order.getQuantity() : 0;
+
+        LocalDate day = LocalDate.ofInstant(order.getDate().toInstant(), zone);
+        dailySales.computeIfAbsent(day, key -> new HashMap<>())
+                .computeIfAbsent(order.getItem(), key -> new ItemSales())
+                .add(sign * revenue, sign * quantity);
+
+        if (sign > 0) {
+            revenueSummary.add(order.getItem(), revenue);
+            quantitySummary.add(order.getItem(), quantity);
+        } else {
+            revenueSummary.remove(order.getItem(), revenue);
+            quantitySummary.remove(order.getItem(), quantity);
+        }
+    }
+
+    private SpaceSaving<String> summaryFor(SalesMetric metric) {
+        return metric == SalesMetric.REVENUE ? revenueSummary : quantitySummary;
+    }
+
+    /**
+     * Running sales of a single item.
+     */
+    private static final class ItemSales {
+
+        // Revenue in minor units
+        private long revenue;
+        private long quantity;
+
+        private void add(long revenue, long quantity) {
+            this.revenue += revenue;
+            this.quantity += quantity;
+        }
+
+        private void add(ItemSales other) {
+            add(other.revenue, other.quantity);
+        }
+
+        private long get(SalesMetric metric) {
+            return metric == SalesMetric.REVENUE ? revenue : quantity;
+        }
+    }
+
+    /**
+     * An item's position in a ranking.
+     */
+    public static final class Entry {
+
+        private final String item;
+        private final long value;
+        private final long error;
+
+        private Entry(String item, long value, long error) {
+            this.item = item;
+            this.value = value;
+            this.error = error;
+        }
+
+        public String getItem() {
+            return item;
+        }
+
+        /**
+         * @return Revenue (in minor units) or quantity sold, depending on the
+         * ranking's metric.
+         */
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * @return Maximum overestimation of the value (0 for exact rankings).
+         */
+        public long getError() {
+            return error;
+        }
+    }
+}
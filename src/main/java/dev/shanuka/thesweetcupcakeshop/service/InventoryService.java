@@ -6,10 +6,11 @@ import dev.shanuka.thesweetcupcakeshop.exception.DuplicateEntryError;
 import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
 import dev.shanuka.thesweetcupcakeshop.model.Category;
 import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
 import dev.shanuka.thesweetcupcakeshop.util.DataStore;
-import dev.shanuka.thesweetcupcakeshop.util.Helpers;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * A static service class for managing all business logic related to the
@@ -23,6 +24,24 @@ public final class InventoryService {
     private static final DataStore<Item> productsStore = new DataStore<>(DataFile.ITEMS, Item.class);
     private static final DataStore<Category> categoriesStore = new DataStore<>(DataFile.CATEGORIES, Category.class);
 
+    // Items by category and by name (kept in sync with the items data store)
+    private static final ItemIndex itemIndex = new ItemIndex();
+
+    // N-gram search index over item names and categories (kept in sync with the items data store)
+    private static final ItemSearchIndex searchIndex = new ItemSearchIndex();
+
+    // Ranked, typo tolerant search over item names (kept in sync with the items data store)
+    private static final ItemSearchEngine searchEngine = new ItemSearchEngine();
+
+    // Number of days of sales used to rank search results
+    private static final int SEARCH_SALES_DAYS = 30;
+
+    static {
+        productsStore.addListener(itemIndex);
+        productsStore.addListener(searchIndex);
+        productsStore.addListener(searchEngine);
+    }
+
     // Private constructor to prevent instantiation
     private InventoryService() {
     }
@@ -36,20 +55,9 @@ public final class InventoryService {
      * @param price Item price
      * @throws ApplicationError if data retrieval or saving fails
      */
-    public static void addItem(String name, String category, Double price) throws ApplicationError {
-        // Get all existing item IDs
-        List<Integer> itemIds = getAllItems().stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        // Generate the next available ID
-        int newId = Helpers.generateNextAvailableId(itemIds);
-
-        // Create the new Item object
-        Item newItem = new Item(newId, name, category, price);
-
-        // Add the new item to the data store
-        productsStore.add(newItem);
+    public static void addItem(String name, String category, Money price) throws ApplicationError {
+        // Add the new item to the data store with the lowest available ID
+        productsStore.addWithNewId(newId -> new Item(newId, name, category, price));
     }
 
     /**
@@ -61,23 +69,14 @@ public final class InventoryService {
      * @throws NotFoundError if the item to remove is not found
      */
     public static String removeItem(Integer itemId) throws ApplicationError, NotFoundError {
-        // Retrieve the list of items from the products store
-        List<Item> items = productsStore.retrieveData();
-
-        // Remove the matching item
-        for (Item item : items) {
-            if (item.getId() == itemId) {
-                // Remove the matching item from the list
-                items.remove(item);
-
-                // Save updated item list
-                productsStore.saveData(items);
+        // Append a deletion marker for the item
+        Item item = productsStore.delete(itemId);
 
-                return item.getName();
-            }
+        if (item == null) {
+            throw new NotFoundError("No item matches the given item id");
         }
 
-        throw new NotFoundError("No item matches the given item id");
+        return item.getName();
     }
 
     /**
@@ -90,6 +89,92 @@ public final class InventoryService {
         return productsStore.retrieveData();
     }
 
+    /**
+     * Finds all items in a category.
+     *
+     * @param category The category name (case insensitive)
+     * @return A read only list of the items in the category
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<Item> getItemsByCategory(String category) throws ApplicationError {
+        // Reload the index if the items file has changed on disk
+        productsStore.refresh();
+
+        return itemIndex.getByCategory(category);
+    }
+
+    /**
+     * Finds an item by its name.
+     *
+     * @param name The item name (case insensitive)
+     * @return The matching item
+     * @throws ApplicationError if data retrieval fails
+     * @throws NotFoundError if no item has the given name
+     */
+    public static Item findItemByName(String name) throws ApplicationError, NotFoundError {
+        // Reload the index if the items file has changed on disk
+        productsStore.refresh();
+
+        Item item = itemIndex.getByName(name);
+
+        if (item == null) {
+            throw new NotFoundError(String.format("An item named %s cannot be found.", name));
+        }
+
+        return item;
+    }
+
+    /**
+     * Searches items by name and category.
+     *
+     * @param query Whitespace separated keywords (case insensitive)
+     * @return The items whose name or category contains any of the keywords,
+     * ordered by ID
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<Item> searchItems(String query) throws ApplicationError {
+        // Reload the index if the items file has changed on disk
+        productsStore.refresh();
+
+        return searchIndex.search(query, true);
+    }
+
+    /**
+     * Searches items by name.
+     *
+     * @param query Whitespace separated keywords (case insensitive)
+     * @return The items whose name contains any of the keywords, ordered by
+     * ID
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<Item> searchItemsByName(String query) throws ApplicationError {
+        // Reload the index if the items file has changed on disk
+        productsStore.refresh();
+
+        return searchIndex.search(query, false);
+    }
+
+    /**
+     * Searches items by name, tolerating partial and misspelled keywords.
+     * Results are ranked by how well they match, and then by how often the
+     * item has sold recently. Items whose name only contains a keyword within
+     * a word (e.g. "late" in "chocolate") are listed after the other matches.
+     *
+     * @param query Keywords (case insensitive), e.g. "choc cupcak"
+     * @param limit Maximum number of items to retrieve
+     * @return The best matching items, best match first
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<Item> rankItems(String query, int limit) throws ApplicationError {
+        // Reload the search engine if the items file has changed on disk
+        productsStore.refresh();
+
+        LocalDate today = LocalDate.now();
+        Map<String, Long> recentSales = OrderService.getItemSalesQuantities(today.minusDays(SEARCH_SALES_DAYS - 1), today.plusDays(1));
+
+        return searchEngine.search(query, searchItemsByName(query), recentSales, limit);
+    }
+
     /**
      * Adds a new category to the data store.
      *
@@ -99,26 +184,15 @@ public final class InventoryService {
      * exists
      */
     public static void addCategory(String categoryName) throws ApplicationError, DuplicateEntryError {
-        // Get all existing category IDs
-        List<Integer> categoryIds = getAllCategories().stream()
-                .map(Category::getId)
-                .collect(Collectors.toList());
-
-        // Generate the next available ID
-        int newId = Helpers.generateNextAvailableId(categoryIds);
-        
-        // Construct the new category object
-        Category newCategory = new Category(newId, categoryName);
-        
         // Throw an error if a category with the given name already exists
         for (Category category : getAllCategories()) {
-            if (category.getName().equalsIgnoreCase(newCategory.getName())) {
+            if (category.getName().equalsIgnoreCase(categoryName)) {
                 throw new DuplicateEntryError("The category entered already exists");
             }
         }
 
-        // Add the new category to the data store
-        categoriesStore.add(newCategory);
+        // Add the new category to the data store with the lowest available ID
+        categoriesStore.addWithNewId(newId -> new Category(newId, categoryName));
     }
 
     /**
@@ -130,25 +204,14 @@ public final class InventoryService {
      * @throws NotFoundError if the category to remove is not found
      */
     public static String removeCategory(Integer categoryId) throws ApplicationError, NotFoundError {
-        // Retrieve the list of matching categories from the categories store
-        List<Category> categories = categoriesStore.retrieveData();
+        // Append a deletion marker for the category
+        Category category = categoriesStore.delete(categoryId);
 
-        // Remove the matching category
-        for (Category category : categories) {
-            System.out.println("Checking category id: " + category.getId());
-            
-            if (category.getId() == categoryId) {
-                // Remove the matching from the retrieved categories list
-                categories.remove(category);
-
-                // Save updated categories list
-                categoriesStore.saveData(categories);
-
-                return category.getName();
-            }
+        if (category == null) {
+            throw new NotFoundError("No category matches the given category id");
         }
 
-        throw new NotFoundError("No category matches the given category id");
+        return category.getName();
     }
 
     /**
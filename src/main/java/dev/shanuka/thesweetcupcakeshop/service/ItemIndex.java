@@ -0,0 +1,90 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes over the items data store: items by category and items by
+ * name. Both are keyed by the lower-cased value, and are kept in sync with the
+ * data store as items are added and removed.
+ *
+ * @author Shanuka
+ */
+public final class ItemIndex implements DataStoreListener<Item> {
+
+    // Items in each category (each list is read only and replaced on change)
+    private volatile Map<String, List<Item>> itemsByCategory = new ConcurrentHashMap<>();
+
+    // Item with each name
+    private volatile Map<String, Item> itemsByName = new ConcurrentHashMap<>();
+
+    /**
+     * @param category Category name (case insensitive).
+     * @return The items in the category (read only, empty if there are none).
+     */
+    public List<Item> getByCategory(String category) {
+        return itemsByCategory.getOrDefault(normalize(category), List.of());
+    }
+
+    /**
+     * @param name Item name (case insensitive).
+     * @return The item with the given name, or null if there is none.
+     */
+    public Item getByName(String name) {
+        return itemsByName.get(normalize(name));
+    }
+
+    @Override
+    public void dataLoaded(List<Item> items) {
+        Map<String, List<Item>> newItemsByCategory = new ConcurrentHashMap<>();
+        Map<String, Item> newItemsByName = new ConcurrentHashMap<>();
+
+        for (Item item : items) {
+            newItemsByCategory.computeIfAbsent(normalize(item.getCategory()), key -> new ArrayList<>()).add(item);
+            newItemsByName.put(normalize(item.getName()), item);
+        }
+
+        newItemsByCategory.replaceAll((category, categoryItems) -> List.copyOf(categoryItems));
+
+        itemsByCategory = newItemsByCategory;
+        itemsByName = newItemsByName;
+    }
+
+    @Override
+    public void objectsAdded(List<Item> items) {
+        for (Item item : items) {
+            itemsByCategory.compute(normalize(item.getCategory()), (category, categoryItems) -> {
+                List<Item> updated = categoryItems == null ? new ArrayList<>() : new ArrayList<>(categoryItems);
+                updated.add(item);
+
+                return List.copyOf(updated);
+            });
+
+            itemsByName.put(normalize(item.getName()), item);
+        }
+    }
+
+    @Override
+    public void objectRemoved(Item item) {
+        itemsByCategory.computeIfPresent(normalize(item.getCategory()), (category, categoryItems) -> {
+            List<Item> updated = new ArrayList<>(categoryItems);
+            updated.removeIf(existingItem -> existingItem.getId().equals(item.getId()));
+
+            // Drop categories that no longer have any items
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+
+        itemsByName.computeIfPresent(normalize(item.getName()),
+                (name, existingItem) -> existingItem.getId().equals(item.getId()) ? null : existingItem);
+    }
+
+    // Index keys ignore surrounding whitespace and case
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,252 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.util.BkTree;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
+import dev.shanuka.thesweetcupcakeshop.util.PrefixTrie;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Ranked, typo tolerant search over item names, kept in sync with the items
+ * data store.
+ *
+ * Each keyword of a query is matched against the words of the item names:
+ * exactly, as the prefix of a word (through a prefix trie, for as-you-type
+ * completion) or within a small edit distance (through a BK-tree, for
+ * misspellings). An item scores the best match of each keyword in its name,
+ * and items that sell more often get a small boost. Items whose name only
+ * contains a keyword inside a word (e.g. "cake" in "cupcake", found by
+ * {@link ItemSearchIndex}) are ranked below every word match.
+ *
+ * @author Shanuka
+ */
+public final class ItemSearchEngine implements DataStoreListener<Item> {
+
+    // Scores of a keyword's match with a word
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.5;
+    private static final double FUZZY_SCORE = 0.7;
+    private static final double SUBSTRING_SCORE = 0.2;
+
+    // Weight of the sales boost (applied to the logarithm of the quantity sold)
+    private static final double SALES_WEIGHT = 0.05;
+
+    // Maximum number of completions considered for a keyword
+    private static final int PREFIX_LIMIT = 256;
+
+    // Keywords shorter than this are not matched approximately
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // Items by id
+    private final Map<Integer, Item> items = new HashMap<>();
+
+    // Words of each item's name, by id
+    private final Map<Integer, Set<String>> itemWords = new HashMap<>();
+
+    // Ids of the items whose name contains each word
+    private final Map<String, Set<Integer>> wordItems = new HashMap<>();
+
+    // Greater than every item id
+    private int idBound = 0;
+
+    private final PrefixTrie prefixes = new PrefixTrie();
+    private final BkTree spellings = new BkTree();
+
+    /**
+     * Finds the items matching a query, best match first.
+     *
+     * @param query Keywords, possibly partial or misspelled.
+     * @param substringMatches Items whose name contains a keyword anywhere
+     * (matched with a lower score if none of their words match).
+     * @param salesByItem Quantity recently sold of each item, by item name.
+     * @param limit Maximum number of items to return.
+     * @return The best matching items, ordered by score (and by name for
+     * equal scores).
+     */
+    public synchronized List<Item> search(String query, List<Item> substringMatches, Map<String, Long> salesByItem, int limit) {
+        // Scores by item id (ids are allocated densely, so arrays avoid boxing every match)
+        double[] scores = new double[idBound];
+        double[] keywordScores = new double[idBound];
+        BitSet matched = new BitSet(idBound);
+        BitSet keywordMatched = new BitSet(idBound);
+
+        for (String keyword : words(query)) {
+            // Best score of the keyword within each item
+            for (Map.Entry<String, Double> word : matchingWords(keyword).entrySet()) {
+                double score = word.getValue();
+
+                for (int id : wordItems.get(word.getKey())) {
+                    keywordScores[id] = Math.max(keywordScores[id], score);
+                    keywordMatched.set(id);
+                }
+            }
+
+            for (int id = keywordMatched.nextSetBit(0); id >= 0; id = keywordMatched.nextSetBit(id + 1)) {
+                scores[id] += keywordScores[id];
+                keywordScores[id] = 0;
+            }
+
+            matched.or(keywordMatched);
+            keywordMatched.clear();
+        }
+
+        // Items that only contain a keyword inside one of their words
+        for (Item item : substringMatches) {
+            int id = item.getId();
+
+            if (id < idBound && items.containsKey(id) && !matched.get(id)) {
+                scores[id] = SUBSTRING_SCORE;
+                matched.set(id);
+            }
+        }
+
+        // Keep the best limit items in a min-heap (worst of the best on top)
+        Comparator<Result> byRank = Comparator.<Result>comparingDouble(result -> result.score)
+                .thenComparing(result -> result.name, Comparator.reverseOrder());
+        PriorityQueue<Result> best = new PriorityQueue<>(byRank);
+
+        for (int id = matched.nextSetBit(0); id >= 0; id = matched.nextSetBit(id + 1)) {
+            Item item = items.get(id);
+            long sales = salesByItem.getOrDefault(item.getName(), 0L);
+            Result result = new Result(item, scores[id] + SALES_WEIGHT * Math.log1p(Math.max(sales, 0)));
+
+            if (best.size() < limit) {
+                best.add(result);
+            } else if (limit > 0 && byRank.compare(result, best.peek()) > 0) {
+                best.poll();
+                best.add(result);
+            }
+        }
+
+        List<Item> results = new ArrayList<>(best.size());
+
+        while (!best.isEmpty()) {
+            results.add(best.poll().item);
+        }
+
+        Collections.reverse(results);
+
+        return results;
+    }
+
+    @Override
+    public synchronized void dataLoaded(List<Item> loadedItems) {
+        items.clear();
+        itemWords.clear();
+        wordItems.clear();
+        prefixes.clear();
+        spellings.clear();
+        idBound = 0;
+
+        add(loadedItems);
+    }
+
+    @Override
+    public synchronized void objectsAdded(List<Item> addedItems) {
+        add(addedItems);
+    }
+
+    @Override
+    public synchronized void objectRemoved(Item item) {
+        if (items.remove(item.getId()) == null) {
+            return;
+        }
+
+        for (String word : itemWords.remove(item.getId())) {
+            Set<Integer> ids = wordItems.get(word);
+            ids.remove(item.getId());
+
+            // Forget words that no longer occur in any item (the BK-tree keeps them, but they match nothing)
+            if (ids.isEmpty()) {
+                wordItems.remove(word);
+                prefixes.remove(word);
+            }
+        }
+    }
+
+    private void add(List<Item> addedItems) {
+        for (Item item : addedItems) {
+            // Replace an earlier item with the same id
+            objectRemoved(item);
+
+            Set<String> words = new LinkedHashSet<>(words(item.getName()));
+
+            items.put(item.getId(), item);
+            itemWords.put(item.getId(), words);
+            idBound = Math.max(idBound, item.getId() + 1);
+
+            for (String word : words) {
+                wordItems.computeIfAbsent(word, key -> new HashSet<>()).add(item.getId());
+                prefixes.add(word);
+                spellings.add(word);
+            }
+        }
+    }
+
+    // Finds the words a keyword matches, and the score of each match
+    private Map<String, Double> matchingWords(String keyword) {
+        Map<String, Double> matches = new HashMap<>();
+
+        // Words the keyword is a prefix of (or equal to)
+        for (String word : prefixes.withPrefix(keyword, PREFIX_LIMIT)) {
+            matches.put(word, word.length() == keyword.length()
+                    ? EXACT_SCORE
+                    : PREFIX_SCORE + 0.3 * keyword.length() / word.length());
+        }
+
+        // Words within a small edit distance of the keyword
+        if (keyword.length() >= MIN_FUZZY_LENGTH) {
+            int maxDistance = keyword.length() <= 5 ? 1 : 2;
+
+            for (BkTree.Match match : spellings.search(keyword, maxDistance)) {
+                if (match.getDistance() > 0 && wordItems.containsKey(match.getWord())) {
+                    matches.merge(match.getWord(), FUZZY_SCORE / (1 + match.getDistance()), Math::max);
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    // An item and its score for a query
+    private static final class Result {
+
+        private final Item item;
+        private final String name;
+        private final double score;
+
+        private Result(Item item, double score) {
+            this.item = item;
+            this.name = item.getName() != null ? item.getName() : "";
+            this.score = score;
+        }
+    }
+
+    // Splits a text into lower-cased words (letters and digits)
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+
+        if (text == null) {
+            return words;
+        }
+
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+
+        return words;
+    }
+}
@@ -0,0 +1,193 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Substring search over item names and categories, kept in sync with the
+ * items data store.
+ *
+ * Every substring of up to three characters (n-gram) of a name or category
+ * has a posting list: a bit set of the ids of the items containing it. A
+ * keyword of up to three characters is looked up directly; a longer keyword
+ * intersects the postings of its trigrams, and the few remaining candidates
+ * are checked with a substring match.
+ *
+ * @author Shanuka
+ */
+public final class ItemSearchIndex implements DataStoreListener<Item> {
+
+    // Longest indexed n-gram
+    private static final int GRAM_LENGTH = 3;
+
+    // Items by id
+    private final Map<Integer, Item> items = new HashMap<>();
+
+    // Lower-cased name and category of each item, by id (used to check candidates)
+    private final Map<Integer, String> normalizedNames = new HashMap<>();
+    private final Map<Integer, String> normalizedCategories = new HashMap<>();
+
+    // Ids of the items containing each n-gram of their name / category
+    private final Map<String, BitSet> namePostings = new HashMap<>();
+    private final Map<String, BitSet> categoryPostings = new HashMap<>();
+
+    /**
+     * Finds the items whose name (and optionally category) contains any of
+     * the whitespace separated keywords of a query, ignoring case.
+     *
+     * @param query The search query.
+     * @param includeCategories true to also match keywords against the
+     * items' categories.
+     * @return The matching items, ordered by id.
+     */
+    public synchronized List<Item> search(String query, boolean includeCategories) {
+        BitSet matches = new BitSet();
+
+        for (String keyword : normalize(query).split("\\s+")) {
+            if (keyword.isEmpty()) {
+                continue;
+            }
+
+            matches.or(match(namePostings, normalizedNames, keyword));
+
+            if (includeCategories) {
+                matches.or(match(categoryPostings, normalizedCategories, keyword));
+            }
+        }
+
+        List<Item> results = new ArrayList<>(matches.cardinality());
+
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            results.add(items.get(id));
+        }
+
+        return results;
+    }
+
+    @Override
+    public synchronized void dataLoaded(List<Item> loadedItems) {
+        items.clear();
+        normalizedNames.clear();
+        normalizedCategories.clear();
+        namePostings.clear();
+        categoryPostings.clear();
+
+        add(loadedItems);
+    }
+
+    @Override
+    public synchronized void objectsAdded(List<Item> addedItems) {
+        add(addedItems);
+    }
+
+    @Override
+    public synchronized void objectRemoved(Item item) {
+        if (items.remove(item.getId()) == null) {
+            return;
+        }
+
+        removePostings(namePostings, normalizedNames.remove(item.getId()), item.getId());
+        removePostings(categoryPostings, normalizedCategories.remove(item.getId()), item.getId());
+    }
+
+    private void add(List<Item> addedItems) {
+        for (Item item : addedItems) {
+            // Replace an earlier item with the same id
+            objectRemoved(item);
+
+            String name = normalize(item.getName());
+            String category = normalize(item.getCategory());
+
+            items.put(item.getId(), item);
+            normalizedNames.put(item.getId(), name);
+            normalizedCategories.put(item.getId(), category);
+
+            addPostings(namePostings, name, item.getId());
+            addPostings(categoryPostings, category, item.getId());
+        }
+    }
+
+    // Finds the ids of the items whose field contains the keyword
+    private BitSet match(Map<String, BitSet> postings, Map<Integer, String> values, String keyword) {
+        if (keyword.length() <= GRAM_LENGTH) {
+            BitSet ids = postings.get(keyword);
+
+            return ids != null ? ids : new BitSet();
+        }
+
+        // Intersect the postings of the keyword's trigrams
+        BitSet candidates = null;
+
+        for (String gram : grams(keyword, GRAM_LENGTH)) {
+            BitSet ids = postings.get(gram);
+
+            if (ids == null) {
+                return new BitSet();
+            }
+
+            if (candidates == null) {
+                candidates = (BitSet) ids.clone();
+            } else {
+                candidates.and(ids);
+            }
+        }
+
+        // Drop candidates that contain every trigram, but not the whole keyword
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (!values.get(id).contains(keyword)) {
+                candidates.clear(id);
+            }
+        }
+
+        return candidates;
+    }
+
+    private static void addPostings(Map<String, BitSet> postings, String value, int id) {
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (String gram : grams(value, length)) {
+                postings.computeIfAbsent(gram, key -> new BitSet()).set(id);
+            }
+        }
+    }
+
+    private static void removePostings(Map<String, BitSet> postings, String value, int id) {
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (String gram : grams(value, length)) {
+                BitSet ids = postings.get(gram);
+
+                if (ids != null) {
+                    ids.clear(id);
+
+                    // Drop n-grams that no longer occur in any item
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    // Distinct substrings of the given length
+    private static Set<String> grams(String value, int length) {
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + length <= value.length(); i++) {
+            grams.add(value.substring(i, i + length));
+        }
+
+        return grams;
+    }
+
+    // Searches ignore case
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
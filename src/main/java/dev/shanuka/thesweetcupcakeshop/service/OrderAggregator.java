@@ -0,0 +1,233 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.enums.OrderGrouping;
+import dev.shanuka.thesweetcupcakeshop.enums.SalesMetric;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Groups orders and computes statistics of a measure for each group, in
+ * parallel. The orders of the time range are found by binary search in the
+ * time order of the order columns, and only that slice is split into
+ * segments that are aggregated on a fork/join pool. The partial results are
+ * merged pairwise.
+ *
+ * Within a segment every group is identified by a numeric key (an item or
+ * category code, a day, an hour or a weekday number), which is only turned
+ * into its object form once the results are merged.
+ *
+ * @author Shanuka
+ */
+public final class OrderAggregator {
+
+    // Segments of up to this many orders are aggregated sequentially
+    private static final int SEGMENT_SIZE = 4096;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    // Group of orders whose item is no longer in the inventory (when grouping by category)
+    public static final String UNKNOWN_CATEGORY = "Unknown";
+
+    private final OrderGrouping grouping;
+    private final SalesMetric metric;
+
+    // Category of each item, by item name (only used when grouping by category)
+    private final Map<String, String> categories;
+
+    private final ZoneRules zoneRules = ZoneId.systemDefault().getRules();
+
+    /**
+     * @param grouping How the orders are grouped.
+     * @param metric Measure aggregated within each group.
+     * @param categories Category of each item by item name, used when
+     * grouping by category.
+     */
+    public OrderAggregator(OrderGrouping grouping, SalesMetric metric, Map<String, String> categories) {
+        this.grouping = grouping;
+        this.metric = metric;
+        this.categories = categories;
+    }
+
+    /**
+     * Aggregates the orders placed within a time range on the given pool.
+     *
+     * @param orders The order columns.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @param pool Pool running the aggregation.
+     * @return Statistics of each group, ordered by group key (item and
+     * category names, LocalDate days, Integer hours or DayOfWeek weekdays).
+     */
+    public Map<Object, SalesStatistics> aggregate(OrderColumns.Snapshot orders, Instant from, Instant to, ForkJoinPool pool) {
+        // Map item codes to category codes (when grouping by category)
+        List<String> categoryNames = new ArrayList<>();
+        int[] categoryCodes = new int[orders.getItemCount()];
+
+        if (grouping == OrderGrouping.CATEGORY) {
+            Map<String, Integer> categoryCodesByName = new HashMap<>();
+
+            for (int itemCode = 0; itemCode < categoryCodes.length; itemCode++) {
+                String category = categories.get(orders.getItemName(itemCode));
+
+                categoryCodes[itemCode] = categoryCodesByName.computeIfAbsent(category != null ? category : UNKNOWN_CATEGORY, name -> {
+                    categoryNames.add(name);
+                    return categoryNames.size() - 1;
+                });
+            }
+        }
+
+        // Positions (in time order) of the orders within the range
+        int fromPosition = orders.findTimePosition(from.toEpochMilli());
+        int toPosition = Math.max(fromPosition, orders.findTimePosition(to.toEpochMilli()));
+
+        SegmentTask task = new SegmentTask(orders, categoryCodes, fromPosition, toPosition);
+        Map<Object, SalesStatistics> groups = new TreeMap<>();
+
+        for (Map.Entry<Long, SalesStatistics> group : pool.invoke(task).entrySet()) {
+            long key = group.getKey();
+
+            Object groupKey = switch (grouping) {
+                case ITEM ->
+                    orders.getItemName((int) key);
+                case CATEGORY ->
+                    categoryNames.get((int) key);
+                case DAY ->
+                    LocalDate.ofEpochDay(key);
+                case HOUR_OF_DAY ->
+                    (int) key;
+                default ->
+                    DayOfWeek.of((int) key);
+            };
+
+            groups.put(groupKey, group.getValue());
+        }
+
+        return groups;
+    }
+
+    /**
+     * Aggregates a segment of the orders (a range of positions in time
+     * order), splitting it in half until it is small enough to aggregate
+     * sequentially.
+     */
+    private final class SegmentTask extends RecursiveTask<Map<Long, SalesStatistics>> {
+
+        private final OrderColumns.Snapshot orders;
+        private final int[] categoryCodes;
+        private final int fromPosition;
+        private final int toPosition;
+
+        private SegmentTask(OrderColumns.Snapshot orders, int[] categoryCodes, int fromPosition, int toPosition) {
+            this.orders = orders;
+            this.categoryCodes = categoryCodes;
+            this.fromPosition = fromPosition;
+            this.toPosition = toPosition;
+        }
+
+        @Override
+        protected Map<Long, SalesStatistics> compute() {
+            if (toPosition - fromPosition <= SEGMENT_SIZE) {
+                return aggregateRows();
+            }
+
+            int middle = (fromPosition + toPosition) >>> 1;
+            SegmentTask left = new SegmentTask(orders, categoryCodes, fromPosition, middle);
+            left.fork();
+
+            Map<Long, SalesStatistics> groups = new SegmentTask(orders, categoryCodes, middle, toPosition).compute();
+
+            // Merge the smaller result into the larger one
+            Map<Long, SalesStatistics> leftGroups = left.join();
+            if (leftGroups.size() > groups.size()) {
+                Map<Long, SalesStatistics> swap = groups;
+                groups = leftGroups;
+                leftGroups = swap;
+            }
+
+            for (Map.Entry<Long, SalesStatistics> group : leftGroups.entrySet()) {
+                groups.merge(group.getKey(), group.getValue(), (statistics, other) -> {
+                    statistics.merge(other);
+                    return statistics;
+                });
+            }
+
+            return groups;
+        }
+
+        private Map<Long, SalesStatistics> aggregateRows() {
+            Map<Long, SalesStatistics> groups = new HashMap<>();
+
+            // Consecutive orders usually fall in the same group, so the last one is kept at hand
+            long lastKey = 0;
+            SalesStatistics lastGroup = null;
+
+            for (int position = fromPosition; position < toPosition; position++) {
+                int row = orders.getRowByTime(position);
+                long time = orders.getTime(row);
+                int itemCode = orders.getItemCode(row);
+
+                // Skip orders without an item (which can't be grouped; orders without a date are never in the range)
+                if (itemCode == OrderColumns.NO_ITEM) {
+                    continue;
+                }
+
+                long key = keyOf(time, itemCode);
+
+                if (lastGroup == null || key != lastKey) {
+                    lastGroup = groups.computeIfAbsent(key, newKey -> new SalesStatistics());
+                    lastKey = key;
+                }
+
+                lastGroup.add(metric == SalesMetric.REVENUE
+                        ? orders.getTotalAmountMinorUnits(row)
+                        : orders.getQuantity(row));
+            }
+
+            return groups;
+        }
+
+        // Finds the numeric key of an order's group
+        private long keyOf(long time, int itemCode) {
+            if (grouping == OrderGrouping.ITEM) {
+                return itemCode;
+            }
+
+            if (grouping == OrderGrouping.CATEGORY) {
+                return categoryCodes[itemCode];
+            }
+
+            long localTime = time + offsetMillis(time);
+
+            return switch (grouping) {
+                case DAY ->
+                    Math.floorDiv(localTime, MILLIS_PER_DAY);
+                case HOUR_OF_DAY ->
+                    Math.floorMod(localTime, MILLIS_PER_DAY) / MILLIS_PER_HOUR;
+                default ->
+                    // The epoch (day 0) was a Thursday (day 4 of the week)
+                    Math.floorMod(Math.floorDiv(localTime, MILLIS_PER_DAY) + 3, 7) + 1;
+            };
+        }
+
+        // Offset of the system time zone from UTC at the given time
+        private long offsetMillis(long time) {
+            ZoneOffset offset = zoneRules.isFixedOffset()
+                    ? zoneRules.getOffset(Instant.EPOCH)
+                    : zoneRules.getOffset(Instant.ofEpochMilli(time));
+
+            return offset.getTotalSeconds() * 1000L;
+        }
+    }
+}
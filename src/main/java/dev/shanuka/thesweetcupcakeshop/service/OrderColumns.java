@@ -0,0 +1,417 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented copy of the orders, kept in sync with the orders data
+ * store. Each field is held in a primitive array (item names are replaced by
+ * codes into a dictionary of distinct names, and amounts by their minor
+ * units), so scanning the orders for
+ * reports reads contiguous memory and doesn't allocate.
+ *
+ * Rows are only appended, except when an order is deleted, in which case the
+ * columns are copied. A snapshot therefore stays valid after later changes.
+ *
+ * The rows are also kept in order of time, so that the orders of a time range
+ * or the latest orders are found without scanning. These queries create the
+ * Order objects they return; the columns are the only copy of the orders kept
+ * in memory.
+ *
+ * @author Shanuka
+ */
+public final class OrderColumns implements DataStoreListener<Order> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Time of orders without a date
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    // Item code of orders without an item
+    public static final int NO_ITEM = -1;
+
+    // Id of orders without an id
+    public static final int NO_ID = 0;
+
+    // Columns (only the first size rows are used, amounts are in minor units)
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int[] itemCodes = new int[INITIAL_CAPACITY];
+    private long[] itemPrices = new long[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private long[] totalAmounts = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // Rows ordered by time (rows with the same time in the order they were added).
+    // Orders are usually added in time order; otherwise it is rebuilt on the next snapshot.
+    private int[] rowsByTime = new int[INITIAL_CAPACITY];
+    private boolean rowsByTimeValid = true;
+
+    // Dictionary of item names (names by code, and codes by name)
+    private final List<String> itemNames = new ArrayList<>();
+    private final Map<String, Integer> itemCodesByName = new HashMap<>();
+
+    /**
+     * @return The current rows (unaffected by later changes).
+     */
+    public synchronized Snapshot snapshot() {
+        if (!rowsByTimeValid) {
+            rowsByTime = sortRowsByTime();
+            rowsByTimeValid = true;
+        }
+
+        return new Snapshot(size, ids, times, itemCodes, itemPrices, quantities, totalAmounts, rowsByTime, itemNames.toArray(new String[0]));
+    }
+
+    /**
+     * Finds the orders placed within a time range.
+     *
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return The orders in the range, oldest first.
+     */
+    public List<Order> getBetween(Instant from, Instant to) {
+        Snapshot snapshot = snapshot();
+        List<Order> orders = new ArrayList<>();
+
+        if (!from.isBefore(to)) {
+            return orders;
+        }
+
+        int end = snapshot.findTimePosition(to.toEpochMilli());
+        for (int position = snapshot.findTimePosition(from.toEpochMilli()); position < end; position++) {
+            orders.add(snapshot.getOrder(snapshot.getRowByTime(position)));
+        }
+
+        return orders;
+    }
+
+    /**
+     * Finds the most recently placed orders.
+     *
+     * @param count Maximum number of orders to return.
+     * @return Up to count orders (none if count isn't positive), newest first
+     * (orders placed at the same time in reverse order of addition).
+     */
+    public List<Order> getLatest(int count) {
+        Snapshot snapshot = snapshot();
+
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Order> orders = new ArrayList<>(Math.min(count, snapshot.size()));
+
+        for (int position = snapshot.size() - 1; position >= 0 && orders.size() < count; position--) {
+            orders.add(snapshot.getOrder(snapshot.getRowByTime(position)));
+        }
+
+        return orders;
+    }
+
+    @Override
+    public synchronized void dataLoaded(List<Order> orders) {
+        int capacity = Math.max(INITIAL_CAPACITY, orders.size());
+
+        ids = new int[capacity];
+        times = new long[capacity];
+        itemCodes = new int[capacity];
+        itemPrices = new long[capacity];
+        quantities = new int[capacity];
+        totalAmounts = new long[capacity];
+        rowsByTime = new int[capacity];
+        rowsByTimeValid = true;
+        size = 0;
+
+        itemNames.clear();
+        itemCodesByName.clear();
+
+        add(orders);
+    }
+
+    @Override
+    public synchronized void objectsAdded(List<Order> orders) {
+        add(orders);
+    }
+
+    @Override
+    public synchronized void objectRemoved(Order order) {
+        if (order.getId() == null) {
+            return;
+        }
+
+        for (int row = 0; row < size; row++) {
+            if (ids[row] != order.getId()) {
+                continue;
+            }
+
+            // Copy the columns without the row, so that existing snapshots are unaffected
+            ids = removeRow(ids, row);
+            times = removeRow(times, row);
+            itemCodes = removeRow(itemCodes, row);
+            itemPrices = removeRow(itemPrices, row);
+            quantities = removeRow(quantities, row);
+            totalAmounts = removeRow(totalAmounts, row);
+            size--;
+
+            // The following rows have moved
+            rowsByTimeValid = false;
+
+            return;
+        }
+    }
+
+    private void add(List<Order> orders) {
+        ensureCapacity(size + orders.size());
+
+        for (Order order : orders) {
+            long time = order.getDate() != null ? order.getDate().getTime() : NO_TIME;
+
+            // An order placed before the latest one breaks the time order
+            if (rowsByTimeValid) {
+                if (size > 0 && time < times[rowsByTime[size - 1]]) {
+                    rowsByTimeValid = false;
+                } else {
+                    rowsByTime[size] = size;
+                }
+            }
+
+            ids[size] = order.getId() != null ? order.getId() : NO_ID;
+            times[size] = time;
+            itemCodes[size] = codeOf(order.getItem());
+            itemPrices[size] = minorUnitsOf(order.getItemPrice());
+            quantities[size] = order.getQuantity() != null ? order.getQuantity() : 0;
+            totalAmounts[size] = minorUnitsOf(order.getTotalAmount());
+            size++;
+        }
+    }
+
+    // Finds the dictionary code of an item name, adding it if it's new
+    private int codeOf(String item) {
+        if (item == null) {
+            return NO_ITEM;
+        }
+
+        return itemCodesByName.computeIfAbsent(item, name -> {
+            itemNames.add(name);
+            return itemNames.size() - 1;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, ids.length * 2);
+
+        ids = Arrays.copyOf(ids, newCapacity);
+        times = Arrays.copyOf(times, newCapacity);
+        itemCodes = Arrays.copyOf(itemCodes, newCapacity);
+        itemPrices = Arrays.copyOf(itemPrices, newCapacity);
+        quantities = Arrays.copyOf(quantities, newCapacity);
+        totalAmounts = Arrays.copyOf(totalAmounts, newCapacity);
+        rowsByTime = Arrays.copyOf(rowsByTime, newCapacity);
+    }
+
+    // Orders the rows by time (a stable sort, so rows with the same time keep the order they were added in)
+    private int[] sortRowsByTime() {
+        int[] rows = new int[ids.length];
+
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+
+        mergeSortByTime(rows, new int[size], 0, size);
+
+        return rows;
+    }
+
+    // Merge sorts rows[from, to) by time. Runs already in order aren't merged, so mostly ordered rows sort in about linear time.
+    private void mergeSortByTime(int[] rows, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSortByTime(rows, buffer, from, middle);
+        mergeSortByTime(rows, buffer, middle, to);
+
+        if (times[rows[middle - 1]] <= times[rows[middle]]) {
+            return;
+        }
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+
+        // Take from the left half on equal times, which keeps the sort stable
+        int left = from;
+        int right = middle;
+        for (int position = from; position < to; position++) {
+            if (right >= to || (left < middle && times[buffer[left]] <= times[buffer[right]])) {
+                rows[position] = buffer[left++];
+            } else {
+                rows[position] = buffer[right++];
+            }
+        }
+    }
+
+    private int[] removeRow(int[] column, int row) {
+        int[] newColumn = new int[column.length];
+        System.arraycopy(column, 0, newColumn, 0, row);
+        System.arraycopy(column, row + 1, newColumn, row, size - row - 1);
+
+        return newColumn;
+    }
+
+    private long[] removeRow(long[] column, int row) {
+        long[] newColumn = new long[column.length];
+        System.arraycopy(column, 0, newColumn, 0, row);
+        System.arraycopy(column, row + 1, newColumn, row, size - row - 1);
+
+        return newColumn;
+    }
+
+    private static long minorUnitsOf(Money amount) {
+        return amount != null ? amount.getMinorUnits() : 0;
+    }
+
+    /**
+     * Read only view of the rows at a point in time. Amounts are in minor
+     * units.
+     */
+    public static final class Snapshot {
+
+        private final int size;
+        private final int[] ids;
+        private final long[] times;
+        private final int[] itemCodes;
+        private final long[] itemPrices;
+        private final int[] quantities;
+        private final long[] totalAmounts;
+        private final int[] rowsByTime;
+        private final String[] itemNames;
+
+        private Snapshot(int size, int[] ids, long[] times, int[] itemCodes, long[] itemPrices, int[] quantities, long[] totalAmounts, int[] rowsByTime, String[] itemNames) {
+            this.size = size;
+            this.ids = ids;
+            this.times = times;
+            this.itemCodes = itemCodes;
+            this.itemPrices = itemPrices;
+            this.quantities = quantities;
+            this.totalAmounts = totalAmounts;
+            this.rowsByTime = rowsByTime;
+            this.itemNames = itemNames;
+        }
+
+        /**
+         * @return Number of rows.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return The order's id, or NO_ID.
+         */
+        public int getId(int row) {
+            return ids[row];
+        }
+
+        /**
+         * @return Time the order was placed in epoch milliseconds, or NO_TIME.
+         */
+        public long getTime(int row) {
+            return times[row];
+        }
+
+        /**
+         * @return Dictionary code of the order's item, or NO_ITEM.
+         */
+        public int getItemCode(int row) {
+            return itemCodes[row];
+        }
+
+        public long getItemPriceMinorUnits(int row) {
+            return itemPrices[row];
+        }
+
+        public int getQuantity(int row) {
+            return quantities[row];
+        }
+
+        public long getTotalAmountMinorUnits(int row) {
+            return totalAmounts[row];
+        }
+
+        /**
+         * @return Number of distinct item names (codes range from 0 to this
+         * value - 1).
+         */
+        public int getItemCount() {
+            return itemNames.length;
+        }
+
+        /**
+         * @param itemCode Dictionary code of an item.
+         * @return The item's name.
+         */
+        public String getItemName(int itemCode) {
+            return itemNames[itemCode];
+        }
+
+        /**
+         * @param position Position in time order (0 is the oldest order).
+         * @return The row at that position.
+         */
+        public int getRowByTime(int position) {
+            return rowsByTime[position];
+        }
+
+        /**
+         * @param time Time in epoch milliseconds.
+         * @return Position (in time order) of the first order placed at or
+         * after the given time, or size() if there is none.
+         */
+        public int findTimePosition(long time) {
+            int low = 0;
+            int high = size;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (times[rowsByTime[middle]] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+
+        /**
+         * Creates an Order from a row. Missing ids, items and dates read as
+         * null; missing amounts and quantities read as 0.
+         *
+         * @param row The row.
+         * @return A new Order holding the row's values.
+         */
+        public Order getOrder(int row) {
+            return new Order(
+                    ids[row] != NO_ID ? ids[row] : null,
+                    times[row] != NO_TIME ? new Date(times[row]) : null,
+                    itemCodes[row] != NO_ITEM ? itemNames[itemCodes[row]] : null,
+                    Money.ofMinorUnits(itemPrices[row]),
+                    quantities[row],
+                    Money.ofMinorUnits(totalAmounts[row]));
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package dev.shanuka.thesweetcupcakeshop.service;
 
 import dev.shanuka.thesweetcupcakeshop.enums.DataFile;
+import dev.shanuka.thesweetcupcakeshop.enums.OrderGrouping;
+import dev.shanuka.thesweetcupcakeshop.enums.SalesMetric;
+import dev.shanuka.thesweetcupcakeshop.enums.SyncPolicy;
 import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
 import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
+import dev.shanuka.thesweetcupcakeshop.model.Item;
 import dev.shanuka.thesweetcupcakeshop.model.Order;
 import dev.shanuka.thesweetcupcakeshop.util.DataStore;
-import dev.shanuka.thesweetcupcakeshop.util.Helpers;
+import dev.shanuka.thesweetcupcakeshop.util.GroupCommitWriter;
+import dev.shanuka.thesweetcupcakeshop.util.IdSequence;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A static service class for managing all business logic related to Orders
@@ -19,25 +31,84 @@ public final class OrderService {
     // Initialize the DataStore for the Order model
     private static final DataStore<Order> dataStore = new DataStore<>(DataFile.ORDERS, Order.class);
 
+    static {
+        // The order history is the largest data file, so read it without copying it into the heap
+        dataStore.setMemoryMapped(true);
+
+        // Every query is served from the indexes and aggregates below, so the orders
+        // are streamed to them instead of being kept in memory as a list as well
+        dataStore.setCacheEnabled(false);
+
+        // Sales recorded at the same time are already written together by the order writer,
+        // so every write can be flushed to disk before the sale is confirmed
+        dataStore.setSyncPolicy(SyncPolicy.ALWAYS);
+    }
+
+    // Running sales totals per day and per month (kept in sync with the data store)
+    private static final SalesAggregates salesAggregates = new SalesAggregates();
+
+    // Sales of each item for best seller rankings (kept in sync with the data store)
+    private static final BestSellers bestSellers = new BestSellers();
+
+    // Orders in column form for reports and time range queries (kept in sync with the data store)
+    private static final OrderColumns orderColumns = new OrderColumns();
+
+    static {
+        dataStore.addListener(salesAggregates);
+        dataStore.addListener(bestSellers);
+        dataStore.addListener(orderColumns);
+    }
+
+    // Order numbers, reserved 64 at a time (starts after the highest existing order ID)
+    private static final IdSequence orderSequence = new IdSequence(Path.of("data/orders.seq"), 64, () -> dataStore.getMaxId() + 1);
+
+    // Writes new orders in the background, grouping concurrent sales into a single write.
+    // Each order gets its ID from the sequence as it is written.
+    private static final GroupCommitWriter<Order> orderWriter = new GroupCommitWriter<>(dataStore, 1024, "order-writer",
+            order -> order.withId(orderSequence.next()));
+
     private OrderService() { }
 
     /**
-     * Adds a new order to the data store
+     * Adds a new order to the data store. The order ID is assigned from the
+     * order sequence
      *
      * @param newOrder New order data
+     * @return The saved order (with its assigned ID)
      * @throws ApplicationError if data saving fails
      */
-    public static void saveOrderData(Order newOrder) throws ApplicationError {
-        // Get all existing order IDs using a stream
-        List<Integer> orderIds = getAllOrders().stream()
-                .map(Order::getId)
-                .collect(Collectors.toList());
-
-        // Generate the next available ID
-        int newId = Helpers.generateNextAvailableId(orderIds);
-        
+    public static Order saveOrderData(Order newOrder) throws ApplicationError {
+        Order order = newOrder.withId(orderSequence.next());
+
         // Add the new order to the data store
-        dataStore.add(newOrder);
+        dataStore.add(order);
+
+        return order;
+    }
+
+    /**
+     * Queues a new order to be added to the data store by the order writer,
+     * without waiting for it to be written. The order ID is assigned from the
+     * order sequence when the order is written
+     *
+     * @param newOrder New order data (its ID is ignored)
+     * @return A future that completes with the saved order (with its assigned
+     * ID) once it is safely stored on disk, or exceptionally if saving fails
+     */
+    public static CompletableFuture<Order> recordOrder(Order newOrder) {
+        return orderWriter.submit(newOrder);
+    }
+
+    /**
+     * Returns the ID the next recorded order is expected to get. The ID is
+     * only assigned when the order is saved, so another sale recorded first
+     * may take it
+     *
+     * @return The next order ID
+     * @throws ApplicationError if the order sequence cannot be read
+     */
+    public static int peekNextOrderId() throws ApplicationError {
+        return orderSequence.peek();
     }
 
     /**
@@ -49,20 +120,150 @@ public final class OrderService {
      * @throws ApplicationError if data retrieval fails
      */
     public static Order findOrderById(Integer id) throws NotFoundError, ApplicationError {
-        // Use a stream to find the first order that matches the ID
-        return getAllOrders().stream()
-                .filter(order -> order.getId().equals(id))
-                .findFirst()
-                .orElseThrow(() -> new NotFoundError(String.format("An order with ID %d cannot be found.", id)));
+        // Read only the matching order using the data store's index
+        Order order = dataStore.findById(id);
+
+        if (order == null) {
+            throw new NotFoundError(String.format("An order with ID %d cannot be found.", id));
+        }
+
+        return order;
+    }
+
+    /**
+     * Retrieves the orders placed within a time range
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @return The orders placed in the range, oldest first
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<Order> getOrdersBetween(Instant from, Instant to) throws ApplicationError {
+        // Reload the columns if the orders file has changed on disk
+        dataStore.refresh();
+
+        return orderColumns.getBetween(from, to);
+    }
+
+    /**
+     * Retrieves the most recently placed orders
+     *
+     * @param count Maximum number of orders to retrieve
+     * @return Up to count orders, newest first
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<Order> getLatestOrders(int count) throws ApplicationError {
+        // Reload the columns if the orders file has changed on disk
+        dataStore.refresh();
+
+        return orderColumns.getLatest(count);
     }
 
     /**
-     * Helper method to retrieve all orders from the data store
+     * Retrieves the sales totals of a day
      *
-     * @return A List of all Order objects
+     * @param day The day (in the system time zone)
+     * @return Total sales amount, order count and quantity sold on the day
      * @throws ApplicationError if data retrieval fails
      */
-    public static List<Order> getAllOrders() throws ApplicationError {
-        return dataStore.retrieveData();
+    public static SalesAggregates.Totals getDailySales(LocalDate day) throws ApplicationError {
+        // Rebuild the totals if the orders file has changed on disk
+        dataStore.refresh();
+
+        return salesAggregates.getDaily(day);
+    }
+
+    /**
+     * Retrieves the sales totals of a month
+     *
+     * @param month The month (in the system time zone)
+     * @return Total sales amount, order count and quantity sold within the
+     * month
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static SalesAggregates.Totals getMonthlySales(YearMonth month) throws ApplicationError {
+        // Rebuild the totals if the orders file has changed on disk
+        dataStore.refresh();
+
+        return salesAggregates.getMonthly(month);
+    }
+
+    /**
+     * Retrieves the best selling items within a range of days
+     *
+     * @param from First day of the range (inclusive, in the system time zone)
+     * @param to Last day of the range (exclusive, in the system time zone)
+     * @param metric Measure to rank the items by
+     * @param count Maximum number of items to retrieve
+     * @return Up to count items, best selling first
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<BestSellers.Entry> getBestSellers(LocalDate from, LocalDate to, SalesMetric metric, int count) throws ApplicationError {
+        // Rebuild the rankings if the orders file has changed on disk
+        dataStore.refresh();
+
+        return bestSellers.getTop(from, to, metric, count);
+    }
+
+    /**
+     * Retrieves the quantity sold of each item within a range of days
+     *
+     * @param from First day of the range (inclusive, in the system time zone)
+     * @param to Last day of the range (exclusive, in the system time zone)
+     * @return Quantity sold of each item sold within the range, by item name
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static Map<String, Long> getItemSalesQuantities(LocalDate from, LocalDate to) throws ApplicationError {
+        // Rebuild the rankings if the orders file has changed on disk
+        dataStore.refresh();
+
+        return bestSellers.getQuantities(from, to);
+    }
+
+    /**
+     * Retrieves the best selling items over the whole order history, using
+     * approximate counts that are cheap to maintain over long ranges
+     *
+     * @param metric Measure to rank the items by
+     * @param count Maximum number of items to retrieve
+     * @return Up to count items, best selling first
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static List<BestSellers.Entry> getApproximateBestSellers(SalesMetric metric, int count) throws ApplicationError {
+        // Rebuild the rankings if the orders file has changed on disk
+        dataStore.refresh();
+
+        return bestSellers.getApproximateTop(metric, count);
+    }
+
+    /**
+     * Groups the orders placed within a time range and computes the count,
+     * sum, minimum, maximum and average of a measure for each group. The
+     * order columns are aggregated in parallel on the common fork/join pool
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @param grouping How the orders are grouped
+     * @param metric Measure aggregated within each group
+     * @return Statistics of each group (revenue in minor units), ordered by
+     * group key
+     * @throws ApplicationError if data retrieval fails
+     */
+    public static Map<Object, SalesStatistics> aggregateOrders(Instant from, Instant to, OrderGrouping grouping, SalesMetric metric) throws ApplicationError {
+        Map<String, String> categories = new HashMap<>();
+
+        // Join the orders to their item's category
+        if (grouping == OrderGrouping.CATEGORY) {
+            for (Item item : InventoryService.getAllItems()) {
+                categories.put(item.getName(), item.getCategory());
+            }
+        }
+
+        OrderAggregator aggregator = new OrderAggregator(grouping, metric, categories);
+
+        // Reload the columns if the orders file has changed on disk
+        dataStore.refresh();
+
+        return aggregator.aggregate(orderColumns.snapshot(), from, to, ForkJoinPool.commonPool());
     }
 }
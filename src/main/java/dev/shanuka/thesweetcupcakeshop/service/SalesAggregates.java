@@ -0,0 +1,128 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running sales totals per day and per month, kept in sync with the orders
+ * data store. Totals are rebuilt when the orders are loaded and then updated
+ * as each order is committed, so reading them doesn't depend on the number of
+ * orders.
+ *
+ * Days and months are taken in the system time zone.
+ *
+ * @author Shanuka
+ */
+public final class SalesAggregates implements DataStoreListener<Order> {
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Map<LocalDate, Totals> dailyTotals = new HashMap<>();
+    private final Map<YearMonth, Totals> monthlyTotals = new HashMap<>();
+
+    /**
+     * @param day The day.
+     * @return Sales totals of the orders placed on the given day.
+     */
+    public synchronized Totals getDaily(LocalDate day) {
+        return dailyTotals.getOrDefault(day, Totals.EMPTY);
+    }
+
+    /**
+     * @param month The month.
+     * @return Sales totals of the orders placed within the given month.
+     */
+    public synchronized Totals getMonthly(YearMonth month) {
+        return monthlyTotals.getOrDefault(month, Totals.EMPTY);
+    }
+
+    @Override
+    public synchronized void dataLoaded(List<Order> orders) {
+        dailyTotals.clear();
+        monthlyTotals.clear();
+
+        for (Order order : orders) {
+            apply(order, 1);
+        }
+    }
+
+    @Override
+    public synchronized void objectsAdded(List<Order> orders) {
+        for (Order order : orders) {
+            apply(order, 1);
+        }
+    }
+
+    @Override
+    public synchronized void objectRemoved(Order order) {
+        apply(order, -1);
+    }
+
+    // Adds (sign = 1) or subtracts (sign = -1) an order from the totals of its day and month
+    private void apply(Order order, int sign) {
+        if (order.getDate() == null) {
+            return;
+        }
+
+        LocalDate day = LocalDate.ofInstant(order.getDate().toInstant(), zone);
+
+        dailyTotals.merge(day, Totals.of(order, sign), Totals::plus);
+        monthlyTotals.merge(YearMonth.from(day), Totals.of(order, sign), Totals::plus);
+    }
+
+    /**
+     * Sales totals of a group of orders.
+     */
+    public static final class Totals {
+
+        public static final Totals EMPTY = new Totals(0, 0, 0);
+
+        // Total amount in minor units
+        private final long salesAmount;
+        private final int orderCount;
+        private final long quantity;
+
+        private Totals(long salesAmount, int orderCount, long quantity) {
+            this.salesAmount = salesAmount;
+            this.orderCount = orderCount;
+            this.quantity = quantity;
+        }
+
+        private static Totals of(Order order, int sign) {
+            long amount = order.getTotalAmount() != null ? order.getTotalAmount().getMinorUnits() : 0;
+            int orderQuantity = order.getQuantity() != null ? order.getQuantity() : 0;
+
+            return new Totals(sign * amount, sign, (long) sign * orderQuantity);
+        }
+
+        private Totals plus(Totals other) {
+            return new Totals(salesAmount + other.salesAmount, orderCount + other.orderCount, quantity + other.quantity);
+        }
+
+        public Money getSalesAmount() {
+            return Money.ofMinorUnits(salesAmount);
+        }
+
+        public int getOrderCount() {
+            return orderCount;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * @return Average sales amount per order (0 if there are no orders).
+         */
+        public Money getAverageSale() {
+            return orderCount == 0 ? Money.ZERO : getSalesAmount().dividedBy(orderCount);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+/**
+ * Count, sum, minimum, maximum and average of a measure over a group of
+ * orders. Values are whole numbers: quantities, or revenue in minor units, so
+ * sums are exact. Statistics of separate groups can be merged in any order, which
+ * lets them be computed in parallel over segments of the order history.
+ *
+ * @author Shanuka
+ */
+public final class SalesStatistics {
+
+    private long count = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    // Adds a single value
+    void add(long value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    // Adds the values of another group
+    void merge(SalesStatistics other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return The smallest value (0 if there are no values).
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return The largest value (0 if there are no values).
+     */
+    public long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @return The average value (0 if there are no values).
+     */
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
@@ -6,9 +6,11 @@ import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
 import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
 import dev.shanuka.thesweetcupcakeshop.model.User;
 import dev.shanuka.thesweetcupcakeshop.util.DataStore;
-import dev.shanuka.thesweetcupcakeshop.util.Helpers;
+import dev.shanuka.thesweetcupcakeshop.util.DataStoreListener;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -19,29 +21,58 @@ public class UserService {
 
     private static DataStore<User> dataStore = new DataStore<User>(DataFile.USERS, User.class);
 
-    // User id will be generated automatically
-    public static void addUser(UserRole role, String firstName, String lastName, String email, String password) throws ApplicationError {
-        List<Integer> userIds = getAllUsers().stream()
-                .map(User::getId)
-                .collect(Collectors.toList());
+    // Users by their normalized email (kept in sync with the data store)
+    private static volatile Map<String, User> usersByEmail = new ConcurrentHashMap<>();
 
-        for (User user : getAllUsers()) {
-            userIds.add(user.getId());
-        }
+    static {
+        dataStore.addListener(new DataStoreListener<User>() {
+            @Override
+            public void dataLoaded(List<User> users) {
+                Map<String, User> index = new ConcurrentHashMap<>();
+
+                for (User user : users) {
+                    if (user.getemail() != null) {
+                        index.put(normalizeEmail(user.getemail()), user);
+                    }
+                }
+
+                usersByEmail = index;
+            }
 
-        User newUser = new User(Helpers.generateNextAvailableId(userIds), role, firstName, lastName, email, password);
+            @Override
+            public void objectsAdded(List<User> users) {
+                for (User user : users) {
+                    if (user.getemail() != null) {
+                        usersByEmail.put(normalizeEmail(user.getemail()), user);
+                    }
+                }
+            }
 
-        dataStore.add(newUser);
+            @Override
+            public void objectRemoved(User user) {
+                // The removed user is a different instance than the indexed one, so match it by id
+                if (user.getemail() != null) {
+                    usersByEmail.computeIfPresent(normalizeEmail(user.getemail()),
+                            (email, existingUser) -> existingUser.getId().equals(user.getId()) ? null : existingUser);
+                }
+            }
+        });
+    }
+
+    // User id will be generated automatically
+    public static void addUser(UserRole role, String firstName, String lastName, String email, String password) throws ApplicationError {
+        dataStore.addWithNewId(newId -> new User(newId, role, firstName, lastName, email, password));
     }
 
     public static User findUser(String email) throws NotFoundError, ApplicationError {
-        List<User> users = getAllUsers();
+        // Reload the index if the users file has changed on disk
+        dataStore.refresh();
 
-        for (User user : users) {
-            // If a matching user is found
-            if (user.getemail().matches(email)) {
-                return user;
-            }
+        User user = usersByEmail.get(normalizeEmail(email));
+
+        // If a matching user is found
+        if (user != null) {
+            return user;
         }
 
         // If no user is found, throw a NotFoundError
@@ -57,26 +88,22 @@ public class UserService {
      * @throws NotFoundError if the user to remove is not found
      */
     public static String removeUser(Integer userId) throws ApplicationError, NotFoundError {
-        // Retrieve the list of users from the data store
-        List<User> users = dataStore.retrieveData();
-
-        // Remove the matching user
-        for (User user : users) {
-            if (user.getId() == userId) {
-                // Remove the matching user from the list
-                users.remove(user);
+        // Append a deletion marker for the user
+        User user = dataStore.delete(userId);
 
-                // Save updated user list
-                dataStore.saveData(users);
-
-                return user.getFirstName() + " " + user.getLastName();
-            }
+        if (user == null) {
+            throw new NotFoundError("No user matches the given user id");
         }
 
-        throw new NotFoundError("No user matches the given user id");
+        return user.getFirstName() + " " + user.getLastName();
     }
 
     public static List<User> getAllUsers() throws ApplicationError {
         return dataStore.retrieveData();
     }
+
+    // Emails are compared without surrounding whitespace and case
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,450 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact binary representation of a data file.
+ *
+ * A file begins with a header holding a magic number, the schema version and
+ * the list of stored fields (name and type). The header is followed by one
+ * length-prefixed record per object. Within a record every field is written in
+ * header order as a presence byte followed by its value: integers as zigzag
+ * varints, doubles as raw 8 byte values, amounts of money as varints of
+ * minor units, dates as epoch milliseconds and strings / enums as
+ * length-prefixed UTF-8.
+ *
+ * A deleted object is recorded by appending a record with an empty payload
+ * followed by the deleted id as a varint.
+ *
+ * Fields are matched by name when reading, so files written before a new
+ * field was added to the model can still be read. Amounts written as doubles
+ * (version 1) are converted to money when read.
+ *
+ * @author Shanuka
+ */
+public class BinaryFormat<T> {
+
+    // "SCSB" (Sweet Cupcake Shop Binary)
+    private static final byte[] MAGIC = {'S', 'C', 'S', 'B'};
+
+    // Current schema version (2: amounts stored as money instead of doubles)
+    private static final int VERSION = 2;
+
+    // Field type tags
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_DOUBLE = 2;
+    private static final byte TYPE_STRING = 3;
+    private static final byte TYPE_DATE = 4;
+    private static final byte TYPE_ENUM = 5;
+    private static final byte TYPE_MONEY = 6;
+
+    private final ModelCodec<T> codec;
+
+    // Schema of the current model (i.e. the schema used when writing)
+    private final Schema schema;
+
+    // Encoded header for the current schema
+    private final byte[] header;
+
+    public BinaryFormat(ModelCodec<T> codec) {
+        this.codec = codec;
+
+        List<ModelCodec.FieldCodec> fields = codec.getFields();
+        ModelCodec.FieldCodec[] schemaFields = fields.toArray(new ModelCodec.FieldCodec[0]);
+        byte[] types = new byte[schemaFields.length];
+
+        for (int i = 0; i < schemaFields.length; i++) {
+            types[i] = typeOf(schemaFields[i].getType());
+        }
+
+        schema = new Schema(schemaFields, types);
+        header = encodeHeader();
+    }
+
+    /**
+     * @return The header written at the beginning of every binary data file.
+     */
+    public byte[] getHeader() {
+        return header.clone();
+    }
+
+    /**
+     * Checks whether a file header matches the current schema, i.e. whether
+     * new records can be appended to the file as they are.
+     *
+     * @param fileStart The first bytes of the file (at least the header length).
+     * @return true if the file was written with the current schema.
+     */
+    public boolean hasCurrentSchema(byte[] fileStart) {
+        return fileStart.length >= header.length
+                && Arrays.equals(fileStart, 0, header.length, header, 0, header.length);
+    }
+
+    /**
+     * @return The schema of the current model (i.e. the schema of files
+     * written by this format).
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return Length of the header for the current schema in bytes.
+     */
+    public int getHeaderLength() {
+        return header.length;
+    }
+
+    /**
+     * Encodes an object as a length-prefixed record.
+     *
+     * @param object The object to encode.
+     * @return The encoded record.
+     * @throws ApplicationError if the object's fields cannot be read.
+     */
+    public byte[] encode(T object) throws ApplicationError {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+
+        for (int i = 0; i < schema.fields.length; i++) {
+            Object value = schema.fields[i].get(object);
+
+            if (value == null) {
+                payload.write(0);
+                continue;
+            }
+
+            payload.write(1);
+
+            switch (schema.types[i]) {
+                case TYPE_INT ->
+                    writeVarLong(payload, (Integer) value);
+                case TYPE_DOUBLE ->
+                    writeLong(payload, Double.doubleToLongBits((Double) value));
+                case TYPE_MONEY ->
+                    writeVarLong(payload, ((Money) value).getMinorUnits());
+                case TYPE_DATE ->
+                    writeVarLong(payload, ((Date) value).getTime());
+                case TYPE_STRING ->
+                    writeString(payload, (String) value);
+                case TYPE_ENUM ->
+                    writeString(payload, ((Enum<?>) value).name());
+                default ->
+                    throw new ApplicationError("Unsupported field type: " + schema.types[i]);
+            }
+        }
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(payload.size() + 5);
+        writeVarLong(record, payload.size());
+        record.writeBytes(payload.toByteArray());
+
+        return record.toByteArray();
+    }
+
+    /**
+     * Encodes a deletion marker for the object with the given id.
+     *
+     * @param id Id of the deleted object.
+     * @return The encoded record.
+     */
+    public byte[] encodeDeletion(int id) {
+        ByteArrayOutputStream record = new ByteArrayOutputStream(6);
+        writeVarLong(record, 0);
+        writeVarLong(record, id);
+
+        return record.toByteArray();
+    }
+
+    /**
+     * Reads a file header.
+     *
+     * @param input Stream positioned at the beginning of the file.
+     * @return The schema the file was written with.
+     * @throws ApplicationError if the header is invalid or references fields
+     * the model doesn't have.
+     */
+    public Schema readHeader(DataInputStream input) throws ApplicationError, IOException {
+        byte[] magic = new byte[MAGIC.length];
+        input.readFully(magic);
+
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new ApplicationError("Not a binary data file");
+        }
+
+        int version = input.readUnsignedShort();
+        if (version > VERSION) {
+            throw new ApplicationError("Unsupported binary data file version: " + version);
+        }
+
+        int fieldCount = (int) readVarLong(input);
+        ModelCodec.FieldCodec[] fields = new ModelCodec.FieldCodec[fieldCount];
+        byte[] types = new byte[fieldCount];
+
+        for (int i = 0; i < fieldCount; i++) {
+            byte[] name = new byte[(int) readVarLong(input)];
+            input.readFully(name);
+
+            String fieldName = new String(name, StandardCharsets.UTF_8);
+            fields[i] = codec.getField(fieldName);
+            types[i] = input.readByte();
+
+            // If the file contains a field that the model doesn't have
+            if (fields[i] == null) {
+                throw new ApplicationError("Unknown field \"" + fieldName + "\"");
+            }
+
+            // Amounts written as doubles before the money type was introduced
+            boolean legacyMoney = types[i] == TYPE_DOUBLE && fields[i].getType() == Money.class;
+
+            if (types[i] != typeOf(fields[i].getType()) && !legacyMoney) {
+                throw new ApplicationError("Type of field \"" + fieldName + "\" has changed");
+            }
+        }
+
+        return new Schema(fields, types);
+    }
+
+    /**
+     * Decodes a record payload (i.e. a record without its length prefix).
+     *
+     * @param payload Buffer positioned at the beginning of the payload.
+     * @param fileSchema Schema the file was written with.
+     * @return The decoded object.
+     * @throws ApplicationError if the payload is invalid.
+     */
+    public T decode(ByteBuffer payload, Schema fileSchema) throws ApplicationError {
+        T newInstance = codec.newInstance();
+
+        try {
+            for (int i = 0; i < fileSchema.fields.length; i++) {
+                if (payload.get() == 0) {
+                    continue; // null value
+                }
+
+                Object value = switch (fileSchema.types[i]) {
+                    case TYPE_INT ->
+                        (int) readVarLong(payload);
+                    case TYPE_DOUBLE ->
+                        doubleValue(fileSchema.fields[i].getType(), Double.longBitsToDouble(payload.getLong()));
+                    case TYPE_MONEY ->
+                        Money.ofMinorUnits(readVarLong(payload));
+                    case TYPE_DATE ->
+                        new Date(readVarLong(payload));
+                    case TYPE_STRING ->
+                        readString(payload);
+                    case TYPE_ENUM ->
+                        enumValue(fileSchema.fields[i].getType(), readString(payload));
+                    default ->
+                        throw new ApplicationError("Unsupported field type: " + fileSchema.types[i]);
+                };
+
+                fileSchema.fields[i].set(newInstance, value);
+            }
+        } catch (RuntimeException e) {
+            throw new ApplicationError("Corrupted record", e);
+        }
+
+        return newInstance;
+    }
+
+    /**
+     * Reads the length prefix of the next record.
+     *
+     * @param input Stream positioned at the beginning of a record.
+     * @return The payload length, or -1 at the end of the file.
+     */
+    public static int readRecordLength(DataInputStream input) throws IOException {
+        int first = input.read();
+
+        if (first == -1) {
+            return -1;
+        }
+
+        // Continue decoding the varint from the first byte
+        long result = first & 0x7F;
+        int shift = 7;
+        int b = first;
+
+        while ((b & 0x80) != 0) {
+            b = input.read();
+            if (b == -1) {
+                throw new EOFException("Truncated record length");
+            }
+
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+
+        return (int) ((result >>> 1) ^ -(result & 1));
+    }
+
+    /**
+     * Reads the length prefix of the record at the buffer's position.
+     *
+     * @param buffer Buffer positioned at the beginning of a record.
+     * @return The payload length.
+     */
+    public static int readRecordLength(ByteBuffer buffer) {
+        return (int) readVarLong(buffer);
+    }
+
+    /**
+     * Reads the id of a deletion marker (i.e. what follows an empty length
+     * prefix).
+     *
+     * @param input Stream positioned after the length prefix.
+     * @return The deleted id.
+     */
+    public static int readDeletedId(DataInputStream input) throws IOException {
+        return (int) readVarLong(input);
+    }
+
+    /**
+     * Reads the id of a deletion marker at the buffer's position.
+     *
+     * @param buffer Buffer positioned after the length prefix.
+     * @return The deleted id.
+     */
+    public static int readDeletedId(ByteBuffer buffer) {
+        return (int) readVarLong(buffer);
+    }
+
+    // Encodes the header for the current schema
+    private byte[] encodeHeader() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        out.writeBytes(MAGIC);
+        out.write(VERSION >>> 8);
+        out.write(VERSION);
+
+        writeVarLong(out, schema.fields.length);
+        for (int i = 0; i < schema.fields.length; i++) {
+            writeString(out, schema.fields[i].getName());
+            out.write(schema.types[i]);
+        }
+
+        return out.toByteArray();
+    }
+
+    // Picks the type tag for a field type
+    private static byte typeOf(Class<?> fieldType) {
+        if (fieldType == int.class || fieldType == Integer.class) {
+            return TYPE_INT;
+        }
+
+        if (fieldType == double.class || fieldType == Double.class) {
+            return TYPE_DOUBLE;
+        }
+
+        if (fieldType == Money.class) {
+            return TYPE_MONEY;
+        }
+
+        if (fieldType == String.class) {
+            return TYPE_STRING;
+        }
+
+        if (fieldType == Date.class) {
+            return TYPE_DATE;
+        }
+
+        if (fieldType.isEnum()) {
+            return TYPE_ENUM;
+        }
+
+        throw new IllegalArgumentException("Unsupported field type for binary storage: " + fieldType.getName());
+    }
+
+    // Converts a stored double to the field's type (doubles, or money written by version 1)
+    private static Object doubleValue(Class<?> fieldType, double value) {
+        return fieldType == Money.class ? Money.fromDouble(value) : value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> enumType, String name) {
+        return Enum.valueOf((Class<Enum>) enumType, name);
+    }
+
+    // Writes a signed value as a zigzag encoded varint
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+
+        out.write((int) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            b = input.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) readVarLong(buffer)];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fields stored in a binary file, in the order they are written.
+     */
+    public static final class Schema {
+
+        private final ModelCodec.FieldCodec[] fields;
+        private final byte[] types;
+
+        private Schema(ModelCodec.FieldCodec[] fields, byte[] types) {
+            this.fields = fields;
+            this.types = types;
+        }
+    }
+}
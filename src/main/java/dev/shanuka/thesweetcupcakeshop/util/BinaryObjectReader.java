@@ -0,0 +1,155 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming reader for data files in the binary format.
+ *
+ * @author Shanuka
+ */
+public class BinaryObjectReader<T> extends ObjectReader<T> {
+
+    // Source of the records: either a stream or a (memory-mapped) buffer
+    private final DataInputStream input;
+    private final ByteBuffer mapped;
+    private final BinaryFormat<T> format;
+
+    // Schema the file was written with (read from the header on first use)
+    private BinaryFormat.Schema schema;
+
+    // Reusable buffer for record payloads
+    private byte[] buffer = new byte[256];
+
+    /**
+     * Creates a reader over the given binary content.
+     *
+     * @param input Stream positioned at the beginning of the data file.
+     * @param format Binary format for the model stored in the file.
+     * @param filePath Path of the data file (for error messages).
+     */
+    public BinaryObjectReader(DataInputStream input, BinaryFormat<T> format, String filePath) {
+        super(filePath);
+        this.input = input;
+        this.mapped = null;
+        this.format = format;
+    }
+
+    /**
+     * Creates a reader that decodes records straight out of a buffer holding
+     * the file's content (e.g. a memory-mapped file). Record payloads are
+     * decoded from slices of the buffer without being copied.
+     *
+     * @param mapped Buffer positioned at the beginning of the data file.
+     * @param format Binary format for the model stored in the file.
+     * @param filePath Path of the data file (for error messages).
+     */
+    public BinaryObjectReader(ByteBuffer mapped, BinaryFormat<T> format, String filePath) {
+        super(filePath);
+        this.input = null;
+        this.mapped = mapped;
+        this.format = format;
+    }
+
+    @Override
+    protected boolean readRecord() throws ApplicationError {
+        try {
+            if (schema == null) {
+                schema = format.readHeader(input != null ? input : new DataInputStream(new BufferInputStream(mapped)));
+            }
+
+            if (mapped != null) {
+                return readMapped();
+            }
+
+            int length = BinaryFormat.readRecordLength(input);
+            if (length == -1) {
+                return false; // End of file
+            }
+
+            // A record without a payload is a deletion marker followed by the deleted id
+            if (length == 0) {
+                deletedId = BinaryFormat.readDeletedId(input);
+                return true;
+            }
+
+            if (!decodeObjects) {
+                input.skipNBytes(length);
+                return true;
+            }
+
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            input.readFully(buffer, 0, length);
+
+            object = format.decode(ByteBuffer.wrap(buffer, 0, length), schema);
+            return true;
+        } catch (EOFException e) {
+            throw new ApplicationError("Unexpected end of data file: " + filePath, e);
+        } catch (IOException e) {
+            throw new ApplicationError("Error while reading data at: " + filePath, e);
+        } catch (ApplicationError e) {
+            throw new ApplicationError("Error while parsing data store: " + filePath, e);
+        }
+    }
+
+    // Decodes the next record directly from the buffer
+    private boolean readMapped() throws ApplicationError {
+        if (!mapped.hasRemaining()) {
+            return false; // End of file
+        }
+
+        try {
+            int start = mapped.position();
+            int length = BinaryFormat.readRecordLength(mapped);
+
+            if (length == 0) {
+                deletedId = BinaryFormat.readDeletedId(mapped);
+            } else {
+                ByteBuffer payload = mapped.slice(mapped.position(), length);
+                mapped.position(mapped.position() + length);
+
+                if (decodeObjects) {
+                    object = format.decode(payload, schema);
+                }
+            }
+
+            lastOffset = start;
+            lastLength = mapped.position() - start;
+
+            return true;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new ApplicationError("Unexpected end of data file: " + filePath, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (input != null) {
+            input.close();
+        }
+    }
+
+    /**
+     * Minimal stream over a buffer, used to read the header of a mapped file.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree of words, for finding the words within a small edit
+ * (Levenshtein) distance of a possibly misspelled word.
+ *
+ * Each child of a node is keyed by its distance to the node's word. By the
+ * triangle inequality, a search with a maximum distance d only needs to visit
+ * the children whose key is within d of the query's distance to the node, so
+ * most of the tree is skipped.
+ *
+ * Words can't be removed; callers are expected to ignore words that are no
+ * longer in use and to rebuild the tree when it is reloaded.
+ *
+ * @author Shanuka
+ */
+public class BkTree {
+
+    private Node root;
+
+    /**
+     * Adds a word (words already in the tree are ignored).
+     *
+     * @param word The word.
+     */
+    public void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+
+        Node node = root;
+
+        while (true) {
+            int distance = distance(word, node.word, Integer.MAX_VALUE);
+
+            if (distance == 0) {
+                return;
+            }
+
+            Node child = node.children.get(distance);
+
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                node.maxChildDistance = Math.max(node.maxChildDistance, distance);
+                return;
+            }
+
+            node = child;
+        }
+    }
+
+    /**
+     * Removes all words.
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Finds the words within a maximum edit distance of a word.
+     *
+     * @param word The word.
+     * @param maxDistance Maximum number of single character insertions,
+     * deletions and substitutions.
+     * @return The matching words and their distances.
+     */
+    public List<Match> search(String word, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+
+        if (root == null) {
+            return matches;
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+
+            // Beyond this bound the word doesn't match and no child is visited, so the exact distance isn't needed
+            int distance = distance(word, node.word, maxDistance + node.maxChildDistance);
+
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.word, distance));
+            }
+
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two words, giving up once it
+     * is known to exceed a bound.
+     *
+     * @param first The first word.
+     * @param second The second word.
+     * @param bound Distance above which the exact value isn't needed.
+     * @return The distance, or a value greater than bound.
+     */
+    public static int distance(String first, String second, int bound) {
+        if (Math.abs(first.length() - second.length()) > bound) {
+            return bound + 1;
+        }
+
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+
+            // Every later row is at least as far as this row's minimum
+            if (rowMinimum > bound) {
+                return bound + 1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[second.length()];
+    }
+
+    private static final class Node {
+
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        // Largest key of the children (0 if there are none)
+        private int maxChildDistance = 0;
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    /**
+     * A word found by a search, and its distance to the searched word.
+     */
+    public static final class Match {
+
+        private final String word;
+        private final int distance;
+
+        private Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+}
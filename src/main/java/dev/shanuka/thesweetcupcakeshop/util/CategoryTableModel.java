@@ -0,0 +1,25 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.model.Category;
+import java.util.function.Function;
+import javax.swing.JButton;
+
+/**
+ * Table model listing categories (ID and name) with a button for each
+ * category.
+ *
+ * @author Shanuka
+ */
+public class CategoryTableModel extends ListTableModel<Category> {
+
+    /**
+     * @param button Creates the button of a category's row (e.g. to delete it).
+     */
+    public CategoryTableModel(Function<Category, JButton> button) {
+        super(
+                // Format the ID (makes it three digit)
+                Column.of("ID", category -> String.format("%03d", category.getId())),
+                Column.of("Name", Category::getName),
+                Column.button("", button));
+    }
+}
@@ -1,283 +1,1501 @@
 package dev.shanuka.thesweetcupcakeshop.util;
 
 import dev.shanuka.thesweetcupcakeshop.enums.DataFile;
+import dev.shanuka.thesweetcupcakeshop.enums.StorageFormat;
+import dev.shanuka.thesweetcupcakeshop.enums.SyncPolicy;
 import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
-import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.util.Arrays;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TimeZone;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
 /**
- * Utility class for saving and retrieving data from text files.
+ * Utility class for saving and retrieving data from data files. Data is stored
+ * either as human readable text or in a compact binary format.
+ *
+ * Deleting an object appends a deletion marker instead of rewriting the file.
+ * Once obsolete records make up a large enough share of the file, it is
+ * compacted (rewritten with only the live objects) in the background.
+ *
+ * Appends are recorded in a write-ahead log before they reach the data file
+ * and full rewrites go through a temporary file that atomically replaces the
+ * data file, so an interrupted write never leaves a truncated file behind.
  *
  * @author Shanuka
  */
 public class DataStore<T> {
 
+    // Background thread that compacts data files
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(daemonThreads("data-store-compactor"));
+
+    // Background thread that flushes batched writes to disk
+    private static final ScheduledExecutorService syncScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("data-store-sync"));
+
+    // Size of the write-ahead log above which it is checkpointed (1 MB)
+    private static final long LOG_CHECKPOINT_SIZE = 1024 * 1024;
+
+    // Number of objects handed to the listeners at a time when the data file is streamed to them
+    private static final int STREAM_BATCH_SIZE = 4096;
+
+    // Attempts at replacing a memory mapped data file that is still held by released mappings
+    private static final int REPLACE_ATTEMPTS = 3;
+
+    // Notified when background work fails (null if failures are only printed)
+    private static volatile Consumer<ApplicationError> backgroundErrorHandler;
+
     // Path to the text file containing data
     private String FilePath;
 
     // Store the provided model
     private Class<T> type;
 
-    // Fields that the provided model has
-    List<Field> fields;
+    // Format the data file is stored in
+    private final StorageFormat format;
 
-    // Filed names of the provided model
-    List<String> fieldNames;
+    // Binary encoder / decoder (only used with StorageFormat.BINARY)
+    private final BinaryFormat<T> binaryFormat;
+
+    // Precompiled codec that reads and writes the fields of the provided model
+    private final ModelCodec<T> codec;
 
     // Delimiter to split the objects
     String delimiter = "------- OBJECT -------";
 
+    // Delimiter that begins a deletion marker
+    String deletionDelimiter = "------- DELETED -------";
+
+    // Whether the data file is read through a memory mapping instead of a stream
+    private boolean memoryMapped = false;
+
+    // Field holding each object's id (null if the model has no id)
+    private final ModelCodec.FieldCodec idField;
+
+    // Sidecar index of record positions by id (null until a lookup by id needs it)
+    private OffsetIndex index;
+    private final Path indexPath;
+
+    // Ids in use, derived from the index it was built from (null until an id is first allocated)
+    private BitSet usedIds;
+    private OffsetIndex usedIdsSource;
+
+    // Ids handed out by allocateId() that haven't been added yet
+    private final BitSet reservedIds = new BitSet();
+
+    // Notified of every change to the stored objects
+    private final List<DataStoreListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    // Whether parsed objects are kept in memory
+    private boolean cacheEnabled = true;
+
+    // Parsed objects kept in memory (null until the file is read for the first time, or if caching is disabled)
+    private List<T> cachedData;
+
+    // Whether the listeners (and cachedData, if caching is enabled) reflect the data file as of the stamp below
+    private boolean loaded = false;
+
+    // Size and modification time of the data file when the listeners and cachedData were last in sync with it
+    private long cachedSize = -1;
+    private FileTime cachedModifiedTime;
+
+    // Number of live objects and of obsolete records (deleted objects and
+    // deletion markers) in the data file, as of the last full read (-1 if unknown)
+    private long liveRecords = -1;
+    private long obsoleteRecords = -1;
+
+    // Share of obsolete records above which the data file is compacted
+    private double compactionThreshold = 0.3;
+    private boolean compactionScheduled = false;
+
+    // Error of the last background compaction (null if it succeeded or none has run)
+    private ApplicationError compactionError;
+
+    // Write-ahead log of appends to the data file
+    private final WriteAheadLog log;
+
+    // When writes are flushed to disk, and how often with SyncPolicy.BATCHED
+    private SyncPolicy syncPolicy = SyncPolicy.ALWAYS;
+    private long syncInterval = 100;
+    private boolean syncScheduled = false;
+
     public DataStore(DataFile dataFileType, Class<T> type) {
+        this(dataFileType, type, StorageFormat.TEXT);
+    }
+
+    /**
+     * Creates a data store that keeps its data in the given format.
+     *
+     * @param dataFileType Data file to use.
+     * @param type Model stored in the data file.
+     * @param format Format of the data file (TEXT: *.txt, BINARY: *.bin).
+     */
+    public DataStore(DataFile dataFileType, Class<T> type, StorageFormat format) {
+        this(baseNameOf(dataFileType), type, format);
+    }
+
+    /**
+     * Creates a data store that keeps its data in the given file.
+     *
+     * @param baseName Path of the data file, without its extension.
+     * @param type Model stored in the data file.
+     * @param format Format of the data file (TEXT: *.txt, BINARY: *.bin).
+     */
+    public DataStore(String baseName, Class<T> type, StorageFormat format) {
         this.type = type;
+        this.format = format;
+        this.codec = ModelCodec.of(type);
+        this.binaryFormat = format == StorageFormat.BINARY ? new BinaryFormat<T>(codec) : null;
 
-        // Retrieve all fields that the provided model has
-        fields = Arrays.asList(type.getDeclaredFields());
+        FilePath = baseName + (format == StorageFormat.BINARY ? ".bin" : ".txt");
+        indexPath = Path.of(FilePath + ".idx");
+        idField = codec.getField("id");
+        log = new WriteAheadLog(Path.of(FilePath + ".wal"));
 
-        // Convert them to a list of field names containing the name of each field
-        Stream<String> fieldsStream = fields.stream().map(field -> field.getName());
-        fieldNames = fieldsStream.collect(Collectors.toList());
+        replayLog();
+    }
 
-        // Assign the resource path based on the enum.
-        FilePath = switch (dataFileType) {
+    // Assign the resource path based on the enum.
+    private static String baseNameOf(DataFile dataFileType) {
+        return switch (dataFileType) {
             case DataFile.USERS ->
-                "data/users.txt";
+                "data/users";
             case DataFile.ITEMS ->
-                "data/items.txt";
+                "data/items";
             case DataFile.CATEGORIES ->
-                "data/categories.txt";
+                "data/categories";
             case DataFile.ORDERS ->
-                "data/orders.txt";
+                "data/orders";
             default ->
                 throw new IllegalArgumentException("Unsupported data file type: " + dataFileType);
         };
     }
 
-    public void add(T object) throws ApplicationError {
-        List<T> retrievedData = retrieveData();
-
-        // Append the new object
-        retrievedData.add(object);
-
-        // Save the updated list of objects
-        saveData(retrievedData);
+    /**
+     * Registers a listener that is notified whenever the stored objects are
+     * loaded, added or deleted.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(DataStoreListener<T> listener) {
+        listeners.add(listener);
     }
 
     /**
-     * Converts a generic object into a multi-line formatted string using
-     * reflection.
+     * Reloads the data file if it has changed on disk since it was last read
+     * or written, notifying listeners with the new content. Does nothing if
+     * the cache is in sync.
      *
-     * @param object The object to be converted.
-     * @return A formatted string representation (e.g., "key: value").
-     * @throws ApplicationError if there's an issue accessing the object's
-     * fields.
+     * @throws ApplicationError if the data file cannot be parsed.
      */
-    private String stringifyObject(T object) throws ApplicationError {
-        StringBuilder sb = new StringBuilder();
-        sb.append(delimiter).append("\n");
+    public synchronized void refresh() throws ApplicationError {
+        if (isInSync()) {
+            return;
+        }
 
-        // Get all fields from the object's class.
-        List<Field> fields = Arrays.asList(object.getClass().getDeclaredFields());
+        if (cacheEnabled) {
+            retrieveData();
+            return;
+        }
 
-        try {
-            // Loop through each field to extract its name and value
-            for (Field field : fields) {
-                // Make private fields accessible
-                field.setAccessible(true);
+        invalidateCache();
 
-                // Get the name and value of the field from the object
-                String name = field.getName();
-                Object value = field.get(object);
+        // Record the file state before reading so that a concurrent change triggers another reload
+        updateCacheStamp();
 
-                // Format Date fields as ISO UTC
-                if (value instanceof Date) {
-                    SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-                    isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        streamToListeners();
 
-                    value = isoFormat.format((Date) value);
-                }
+        // Don't consider the file loaded if it could not be stat'ed (e.g. it's missing)
+        if (cachedSize != -1) {
+            loaded = true;
+        }
 
-                // Append the formatted "key: value" line
-                sb.append(name)
-                        .append(": ")
-                        .append(String.valueOf(value))
-                        .append("\n");
-            }
-        } catch (Exception e) {
-            throw new ApplicationError("Could not access object fields for stringification! ", e);
+        scheduleCompactionIfNeeded();
+    }
+
+    /**
+     * Enables or disables keeping the parsed objects in memory. Stores whose
+     * listeners hold everything that is queried (e.g. the order history) can
+     * turn the cache off: their listeners then receive the data file in
+     * batches when it is reloaded, so the whole file is never held as a list
+     * of objects. retrieveData() still works, but parses the file every time.
+     *
+     * @param cacheEnabled false to drop the cached objects.
+     */
+    public synchronized void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+
+        if (!cacheEnabled) {
+            cachedData = null;
         }
+    }
 
-        // Return the complete string.
-        return sb.toString();
+    /**
+     * Sets when writes to this store are flushed to disk. With
+     * SyncPolicy.BATCHED, writes are flushed together every sync interval.
+     *
+     * @param syncPolicy The new sync policy.
+     */
+    public synchronized void setSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
     }
 
-    // Saves data from "retrievedData" to the data file
-    public void saveData(List<T> retrievedData) throws ApplicationError {
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Sets how often batched writes are flushed to disk (only used with
+     * SyncPolicy.BATCHED).
+     *
+     * @param syncInterval Interval in milliseconds.
+     */
+    public synchronized void setSyncInterval(long syncInterval) {
+        if (syncInterval <= 0) {
+            throw new IllegalArgumentException("Sync interval must be positive");
+        }
+
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Converts a data file from one storage format to another. The source
+     * file is left untouched.
+     *
+     * @param dataFileType Data file to convert.
+     * @param type Model stored in the data file.
+     * @param from Current format of the data file.
+     * @param to Format to convert the data file to.
+     * @throws ApplicationError if the source cannot be read or the target
+     * cannot be written.
+     */
+    public static <T> void convert(DataFile dataFileType, Class<T> type, StorageFormat from, StorageFormat to) throws ApplicationError {
+        DataStore<T> source = new DataStore<T>(dataFileType, type, from);
+        DataStore<T> target = new DataStore<T>(dataFileType, type, to);
 
-        for (T object : retrievedData) {
-            // Append the stringified object
-            sb.append(stringifyObject(object));
+        target.saveData(source.retrieveData());
+    }
+
+    /**
+     * Appends a single object to the end of the data file. Only the new object
+     * is written, the existing content is neither read nor rewritten.
+     *
+     * @param object The object to be added.
+     * @throws ApplicationError if the object cannot be written to the file.
+     */
+    public synchronized void add(T object) throws ApplicationError {
+        addAll(List.of(object));
+    }
+
+    /**
+     * Appends several objects to the end of the data file with a single write
+     * (and a single flush to disk, depending on the sync policy).
+     *
+     * @param objects The objects to be added.
+     * @throws ApplicationError if the objects cannot be written to the file.
+     */
+    public synchronized void addAll(List<T> objects) throws ApplicationError {
+        if (objects.isEmpty()) {
+            return;
         }
 
-        // Get the final string content
-        String str = sb.toString().trim();
+        // Only keep the cache and the index if they still match the file we are appending to
+        boolean inSync = isInSync();
+        boolean indexInSync = isIndexInSync();
+
+        long[] recordOffsets = new long[objects.size()];
+        int[] recordLengths = new int[objects.size()];
 
         try {
-            // Create a Path object from our FilePath
             Path path = Path.of(FilePath);
+            long sizeBefore = Files.exists(path) ? Files.size(path) : 0;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            if (format == StorageFormat.BINARY) {
+                // Binary files written with an older schema are rewritten with the current one
+                if (!hasCurrentBinarySchema(path)) {
+                    ArrayList<T> data = retrieveData();
+                    data.addAll(objects);
+                    saveData(data);
+                    return;
+                }
+
+                // A new file begins with the schema header
+                if (sizeBefore == 0) {
+                    bytes.writeBytes(binaryFormat.getHeader());
+                }
+            } else if (!endsWithNewLine(path)) {
+                // saveData() trims the content, so the last block may not end with a new line
+                bytes.write('\n');
+            }
+
+            for (int i = 0; i < objects.size(); i++) {
+                byte[] record = format == StorageFormat.BINARY
+                        ? binaryFormat.encode(objects.get(i))
+                        : stringifyObject(objects.get(i)).getBytes(StandardCharsets.UTF_8);
+
+                // The record comes after any header, line break or records written with it
+                recordOffsets[i] = sizeBefore + bytes.size();
+                recordLengths[i] = record.length;
+                bytes.writeBytes(record);
+            }
 
-            // Write the string to the file
-            Files.writeString(path, str);
+            // Append the new objects to the end of the file
+            appendToDataFile(sizeBefore, bytes.toByteArray());
 
         } catch (IOException e) {
-            System.err.println("Error while saving data: " + e.getMessage());
+            System.err.println("Error while appending data: " + e.getMessage());
             e.printStackTrace();
 
-            throw new ApplicationError("Failed to save data to file: " + FilePath, e);
+            invalidateCache();
+            throw new ApplicationError("Failed to append data to file: " + FilePath, e);
+        }
+
+        // Write through to the cache
+        if (inSync) {
+            if (cachedData != null) {
+                cachedData.addAll(objects);
+            }
+
+            updateCacheStamp();
+        } else {
+            invalidateCache();
+        }
+
+        // Write through to the index
+        if (indexInSync) {
+            indexAppendedRecords(objects, recordOffsets, recordLengths);
+        } else {
+            index = null;
+        }
+
+        if (liveRecords >= 0) {
+            liveRecords += objects.size();
+        }
+
+        for (DataStoreListener<T> listener : listeners) {
+            listener.objectsAdded(Collections.unmodifiableList(objects));
         }
-    }
 
-    public ArrayList<T> retrieveData() throws ApplicationError {
-        // ArrayList to store each block in its strigified state
-        ArrayList<String> objectDataBlocks = new ArrayList<String>();
+        // The added ids are no longer free
+        for (T object : objects) {
+            Integer id = idField != null ? (Integer) idField.get(object) : null;
 
-        // ArrayList to store each block after parsing each block into a Map of key : value pairs
-        ArrayList<Map<String, String>> parsedBlocks = new ArrayList<Map<String, String>>();
+            if (id != null && id > 0) {
+                reservedIds.clear(id);
 
-        // Retrieve data -> Parse them -> Encapsulate them into a <T> object
-        try (InputStream inputStream = Files.newInputStream(Path.of(FilePath))) {
-            // Throw an IOException if data file is missing 
-            if (inputStream == null) {
-                throw new IOException("Resource not found at: " + FilePath);
+                if (usedIds != null) {
+                    usedIds.set(id);
+                }
             }
+        }
+    }
+
+    /**
+     * Adds an object with a newly allocated id, e.g.
+     * {@code store.addWithNewId(id -> new Category(id, name))}. The id is
+     * allocated and the object added under the same lock, and the id is
+     * released again if the object cannot be added.
+     *
+     * @param factory Creates the object for the allocated id.
+     * @return The added object.
+     * @throws ApplicationError if the id cannot be allocated or the object
+     * cannot be written to the file.
+     */
+    public synchronized T addWithNewId(IntFunction<T> factory) throws ApplicationError {
+        int id = allocateId();
+
+        try {
+            T object = factory.apply(id);
+            add(object);
+
+            return object;
+        } finally {
+            // Already cleared if the object was added
+            reservedIds.clear(id);
+        }
+    }
+
+    /**
+     * Allocates the lowest id that isn't used by a stored object. The id is
+     * reserved until an object with it is added, so consecutive calls never
+     * return the same id. Prefer addWithNewId(), which also releases the id
+     * if the add fails.
+     *
+     * Used ids are kept in a bitmap that is derived from the sidecar index
+     * (so it survives restarts without parsing the data file) and updated on
+     * every add and delete.
+     *
+     * @return The allocated id (1 or greater).
+     * @throws ApplicationError if the model has no id or the data file cannot
+     * be read.
+     */
+    public synchronized int allocateId() throws ApplicationError {
+        if (idField == null) {
+            throw new ApplicationError("Objects in " + FilePath + " have no id");
+        }
+
+        BitSet ids = getUsedIds();
 
-            String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        int id = ids.nextClearBit(1);
+        while (reservedIds.get(id)) {
+            id = ids.nextClearBit(id + 1);
+        }
 
-            // Split the content string by the delimiter and add to objectDataBlocks
-            objectDataBlocks.addAll(Arrays.asList(content.split(delimiter)));
+        reservedIds.set(id);
 
-            // Remove the first data block as it's an empty string
-            // This happens because our data file begins with the delimiter
-            // split() looks for the content before this first delimiter
-            // Since there is nothing there, it returns an empty string "" as the first element of the array
-            objectDataBlocks.removeFirst();
+        return id;
+    }
 
-            // Filter out key : value pairs for each block and add them to parsedBlocks
-            for (String block : objectDataBlocks) {
-                // Extract the list of lines
-                ArrayList<String> lines = new ArrayList<String>(Arrays.asList(block.split("\n")));
+    /**
+     * Finds the highest id used by a stored object, using the same bitmap as
+     * allocateId() (so the data file doesn't need to be parsed).
+     *
+     * @return The highest id, or 0 if the data file is empty.
+     * @throws ApplicationError if the model has no id or the data file cannot
+     * be read.
+     */
+    public synchronized int getMaxId() throws ApplicationError {
+        if (idField == null) {
+            throw new ApplicationError("Objects in " + FilePath + " have no id");
+        }
 
-                // Remove the first element as it contains an empty string
-                lines.removeFirst();
+        return Math.max(0, getUsedIds().length() - 1);
+    }
 
-                Map<String, String> dataBlock = new HashMap<String, String>();
+    /**
+     * Returns the ids in use for the current state of the data file,
+     * rebuilding the bitmap whenever the index it was derived from changes.
+     *
+     * @return The bitmap of used ids.
+     */
+    private BitSet getUsedIds() throws ApplicationError {
+        try {
+            if (!Files.exists(Path.of(FilePath))) {
+                usedIds = new BitSet();
+                usedIdsSource = null;
 
-                for (String line : lines) {
-                    if (!line.contains(":")) {
-                        continue; // skip corrupted or empty lines
-                    }
-                    String[] _line = line.split(":", 2);
+                return usedIds;
+            }
+
+            OffsetIndex currentIndex = getIndex();
 
-                    String key = _line[0].trim();
-                    String value = _line.length > 1 ? _line[1].trim() : "";
+            // Files too large to be indexed are scanned instead
+            if (currentIndex == null) {
+                usedIds = new BitSet();
+                usedIdsSource = null;
 
-                    dataBlock.put(key, value);
+                for (T object : retrieveData()) {
+                    Integer id = (Integer) idField.get(object);
+
+                    if (id != null && id > 0) {
+                        usedIds.set(id);
+                    }
                 }
 
-                parsedBlocks.add(dataBlock);
+                return usedIds;
+            }
+
+            if (usedIds == null || usedIdsSource != currentIndex) {
+                usedIds = new BitSet();
+                usedIdsSource = currentIndex;
+
+                for (int id : currentIndex.ids()) {
+                    if (id > 0) {
+                        usedIds.set(id);
+                    }
+                }
             }
+
+            return usedIds;
         } catch (IOException e) {
-            System.err.println("Error while reading data at: " + FilePath);
+            throw new ApplicationError("Error while reading data at: " + FilePath, e);
         }
+    }
 
-        // Create a new instance of T using reflection
-        ArrayList<T> data = new ArrayList<T>();
+    /**
+     * Deletes an object by appending a deletion marker for its id to the data
+     * file. The existing content is neither read nor rewritten; the space is
+     * reclaimed when the file is compacted.
+     *
+     * @param id The id of the object to delete.
+     * @return The deleted object, or null if no object has the given id.
+     * @throws ApplicationError if the data file cannot be read or written.
+     */
+    public synchronized T delete(int id) throws ApplicationError {
+        T object = findById(id);
 
-        // Iterate through each data block and create an object
-        for (Map<String, String> block : parsedBlocks) {
-            try {
-                // Create a new instance of T using reflection
-                T newInstance = type.getDeclaredConstructor().newInstance();
+        if (object == null) {
+            return null;
+        }
+
+        // Only keep the cache and the index if they still match the file we are appending to
+        boolean inSync = isInSync();
+        boolean indexInSync = isIndexInSync();
+
+        try {
+            Path path = Path.of(FilePath);
+            long sizeBefore = Files.size(path);
+            byte[] bytes;
+
+            if (format == StorageFormat.BINARY) {
+                // Binary files written with an older schema are rewritten with the current one
+                if (!hasCurrentBinarySchema(path)) {
+                    ArrayList<T> data = retrieveData();
+                    data.removeIf(existingObject -> hasId(existingObject, id));
+                    saveData(data);
+                    return object;
+                }
 
-                for (String key : block.keySet()) {
-                    if (fieldNames.contains(key)) {
-                        Field field = type.getDeclaredField(key);
+                bytes = binaryFormat.encodeDeletion(id);
+            } else {
+                byte[] marker = stringifyDeletion(id).getBytes(StandardCharsets.UTF_8);
 
-                        // Allow setting private fields
-                        field.setAccessible(true);
+                // saveData() trims the content, so the last block may not end with a new line
+                bytes = endsWithNewLine(path) ? marker : concat(new byte[]{'\n'}, marker);
+            }
+
+            // Append the deletion marker to the end of the file
+            appendToDataFile(sizeBefore, bytes);
+
+        } catch (IOException e) {
+            System.err.println("Error while deleting data: " + e.getMessage());
+            e.printStackTrace();
 
-                        // Convert the String value to a field type
-                        Object value = convertStringToFieldType(block.get(key), field.getType());
+            invalidateCache();
+            throw new ApplicationError("Failed to delete data from file: " + FilePath, e);
+        }
 
-                        // Set the value on newInstance
-                        field.set(newInstance, value);
-                    } // If the retrieved block and given type is incompatible 
-                    // (i.e. block contains a key that type doen't have as a field)
-                    else {
-                        throw new ApplicationError("Error while parsing data store: " + FilePath);
+        // Write through to the cache
+        if (inSync) {
+            if (cachedData != null) {
+                Iterator<T> iterator = cachedData.iterator();
+                while (iterator.hasNext()) {
+                    if (hasId(iterator.next(), id)) {
+                        iterator.remove();
                     }
                 }
-
-                // Add the populated newInstance to our data list
-                data.add(newInstance);
-            } catch (Exception e) {
-                throw new ApplicationError("Error while parsing data store: " + FilePath, e.getCause());
             }
+
+            updateCacheStamp();
+        } else {
+            invalidateCache();
         }
 
-        return data;
+        // Write through to the index
+        if (indexInSync) {
+            indexRemovedRecord(id);
+        } else {
+            index = null;
+        }
+
+        // The deleted id is free again
+        if (usedIds != null && id > 0) {
+            usedIds.clear(id);
+        }
+
+        // The deleted object and its deletion marker are both obsolete now
+        if (liveRecords >= 0) {
+            liveRecords--;
+            obsoleteRecords += 2;
+        }
+
+        for (DataStoreListener<T> listener : listeners) {
+            listener.objectRemoved(object);
+        }
+
+        scheduleCompactionIfNeeded();
+
+        return object;
+    }
+
+    /**
+     * Sets the share of obsolete records (deleted objects and deletion
+     * markers) above which the data file is compacted in the background.
+     *
+     * @param compactionThreshold Share of obsolete records between 0 and 1.
+     */
+    public synchronized void setCompactionThreshold(double compactionThreshold) {
+        if (compactionThreshold < 0 || compactionThreshold > 1) {
+            throw new IllegalArgumentException("Compaction threshold must be between 0 and 1");
+        }
+
+        this.compactionThreshold = compactionThreshold;
+        scheduleCompactionIfNeeded();
+    }
+
+    /**
+     * Rewrites the data file with only its live objects, dropping deleted
+     * objects and deletion markers.
+     *
+     * @throws ApplicationError if the data file cannot be read or written.
+     */
+    public synchronized void compact() throws ApplicationError {
+        saveData(retrieveData());
+    }
+
+    /**
+     * @return The error of the last background compaction, or null if it
+     * succeeded (or none has run yet).
+     */
+    public synchronized ApplicationError getCompactionError() {
+        return compactionError;
     }
 
     /**
-     * Helper method to convert a String value to the correct type for a field.
+     * Sets the handler that is notified when background work of any data
+     * store fails, e.g. a compaction. The handler is called on the background
+     * thread.
      *
-     * @param stringValue The value from the text file.
-     * @param fieldType The type of the field we want to set (e.g. int.class,
-     * String.class).
+     * @param handler The handler, or null to only print failures.
+     */
+    public static void setBackgroundErrorHandler(Consumer<ApplicationError> handler) {
+        backgroundErrorHandler = handler;
+    }
+
+    // Queues a background compaction if obsolete records exceed the threshold
+    private void scheduleCompactionIfNeeded() {
+        if (compactionScheduled || liveRecords < 0) {
+            return;
+        }
+
+        long totalRecords = liveRecords + obsoleteRecords;
+        if (totalRecords == 0 || (double) obsoleteRecords / totalRecords <= compactionThreshold) {
+            return;
+        }
+
+        compactionScheduled = true;
+
+        compactor.execute(() -> {
+            try {
+                compact();
+
+                synchronized (this) {
+                    compactionError = null;
+                }
+            } catch (ApplicationError e) {
+                System.err.println("Error while compacting data file: " + FilePath);
+                e.printStackTrace();
+
+                ApplicationError error = new ApplicationError("Failed to compact data file: " + FilePath, e);
+                synchronized (this) {
+                    compactionError = error;
+                }
+
+                Consumer<ApplicationError> handler = backgroundErrorHandler;
+                if (handler != null) {
+                    handler.accept(error);
+                }
+            } finally {
+                synchronized (this) {
+                    compactionScheduled = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Appends bytes to the data file. The append is logged first, so that it
+     * can be completed on the next start if it is interrupted.
      *
-     * @return The converted object.
+     * @param sizeBefore Current size of the data file.
+     * @param bytes The bytes to append.
+     */
+    private void appendToDataFile(long sizeBefore, byte[] bytes) throws IOException {
+        log.append(sizeBefore, bytes, syncPolicy == SyncPolicy.ALWAYS);
+        Files.write(Path.of(FilePath), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        if (syncPolicy == SyncPolicy.BATCHED) {
+            scheduleSync();
+        }
+
+        // Keep the log short by flushing the data file and starting over
+        if (log.size() > LOG_CHECKPOINT_SIZE) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Flushes the data file to disk and clears the write-ahead log, since
+     * every logged append is then safely stored in the data file.
      */
-    private Object convertStringToFieldType(String stringValue, Class<?> fieldType) throws IllegalArgumentException {
-        if (fieldType == String.class) {
-            return stringValue;
+    private void checkpoint() throws IOException {
+        boolean sync = syncPolicy != SyncPolicy.NEVER;
+
+        if (sync && Files.exists(Path.of(FilePath))) {
+            FileSync.forceFile(Path.of(FilePath));
         }
 
-        if (fieldType == int.class || fieldType == Integer.class) {
-            return Integer.parseInt(stringValue);
+        log.truncate(sync);
+    }
+
+    // Queues a flush of the write-ahead log unless one is already pending
+    private void scheduleSync() {
+        if (syncScheduled) {
+            return;
         }
 
-        if (fieldType == double.class || fieldType == Double.class) {
-            return Double.parseDouble(stringValue);
+        syncScheduled = true;
+
+        syncScheduler.schedule(() -> {
+            synchronized (this) {
+                syncScheduled = false;
+
+                try {
+                    log.sync();
+                } catch (IOException e) {
+                    System.err.println("Error while flushing write-ahead log for: " + FilePath);
+                }
+            }
+        }, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    // Completes any appends that were interrupted before the last shutdown
+    private void replayLog() {
+        try {
+            if (log.size() == 0) {
+                return;
+            }
+
+            int replayed = log.replay(Path.of(FilePath));
+
+            if (replayed > 0) {
+                System.err.println("Recovered " + replayed + " interrupted write(s) in: " + FilePath);
+            }
+
+            checkpoint();
+        } catch (IOException e) {
+            System.err.println("Error while replaying write-ahead log for: " + FilePath);
         }
+    }
+
+    // Creates daemon threads with the given name, so that background work doesn't keep the application running
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
 
-        // Date from an ISO 8601 string
-        if (fieldType == Date.class) {
-            // This parses the standard format "2025-10-22T14:45:10.123Z"
-            return Date.from(Instant.parse(stringValue));
+            return thread;
+        };
+    }
+
+    // Checks whether an object has the given id
+    private boolean hasId(T object, int id) {
+        try {
+            return Integer.valueOf(id).equals(idField.get(object));
+        } catch (ApplicationError e) {
+            return false;
         }
+    }
 
-        // Handle enums by converting the string to an enum constant
-        if (fieldType.isEnum()) {
-            return Enum.valueOf((Class<Enum>) fieldType, stringValue);
+    /**
+     * Finds an object by its id. When possible, the position of its record is
+     * looked up in the sidecar index and only that record is read and decoded.
+     * The index is rebuilt whenever it no longer matches the data file.
+     *
+     * @param id The id of the object to find.
+     * @return The matching object, or null if no object has the given id.
+     * @throws ApplicationError if the model has no id or the data file cannot
+     * be read.
+     */
+    public synchronized T findById(int id) throws ApplicationError {
+        if (idField == null) {
+            throw new ApplicationError("Objects in " + FilePath + " have no id");
         }
 
-        throw new IllegalArgumentException("Unsupported field type for conversion: " + fieldType.getName());
+        Path path = Path.of(FilePath);
+
+        try {
+            if (!Files.exists(path)) {
+                return null;
+            }
+
+            // Records of binary files with an older schema cannot be decoded on their own
+            if (format == StorageFormat.BINARY && !hasCurrentBinarySchema(path)) {
+                return findByIdInData(id);
+            }
+
+            OffsetIndex currentIndex = getIndex();
+            if (currentIndex == null) {
+                return findByIdInData(id);
+            }
+
+            OffsetIndex.Entry entry = currentIndex.get(id);
+            if (entry == null) {
+                return null;
+            }
+
+            return decodeRecord(readRegion(entry.getOffset(), entry.getLength()));
+        } catch (IOException e) {
+            throw new ApplicationError("Error while reading data at: " + FilePath, e);
+        }
+    }
+
+    // Linear search for the given id (used when the index is unavailable)
+    private T findByIdInData(int id) throws ApplicationError {
+        for (T object : retrieveData()) {
+            if (hasId(object, id)) {
+                return object;
+            }
+        }
+
+        return null;
+    }
+
+    // Decodes a single record
+    private T decodeRecord(ByteBuffer record) throws ApplicationError {
+        if (format == StorageFormat.BINARY) {
+            BinaryFormat.readRecordLength(record);
+
+            return binaryFormat.decode(record, binaryFormat.getSchema());
+        }
+
+        return new TextObjectReader<T>(record, codec, delimiter, deletionDelimiter, FilePath).read();
+    }
+
+    /**
+     * Reads a region of the data file. With memory-mapped reads enabled only
+     * the pages holding the region are mapped.
+     *
+     * @param offset Offset of the region.
+     * @param length Length of the region in bytes.
+     * @return Buffer holding the region.
+     */
+    private ByteBuffer readRegion(long offset, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(FilePath), StandardOpenOption.READ)) {
+            if (memoryMapped) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            }
+
+            ByteBuffer region = ByteBuffer.allocate(length);
+            while (region.hasRemaining()) {
+                if (channel.read(region, offset + region.position()) == -1) {
+                    throw new EOFException("Index points past the end of " + FilePath);
+                }
+            }
+
+            return region.flip();
+        }
+    }
+
+    /**
+     * Returns the index for the current state of the data file, loading it
+     * from its sidecar file or rebuilding it if it is missing or stale.
+     *
+     * @return The index, or null if the data file is too large to be indexed.
+     */
+    private OffsetIndex getIndex() throws ApplicationError, IOException {
+        BasicFileAttributes attributes = Files.readAttributes(Path.of(FilePath), BasicFileAttributes.class);
+
+        if (index == null) {
+            index = OffsetIndex.load(indexPath);
+        }
+
+        if (index == null || !index.matches(attributes.size(), attributes.lastModifiedTime().toMillis())) {
+            index = buildIndex(attributes);
+        }
+
+        return index;
+    }
+
+    /**
+     * Scans the data file and records the position of every live object.
+     *
+     * @param attributes Attributes of the data file at the time of the scan.
+     * @return The new index, or null if the data file is too large to be
+     * read as a single buffer.
+     */
+    private OffsetIndex buildIndex(BasicFileAttributes attributes) throws ApplicationError, IOException {
+        ByteBuffer content = readWholeFile();
+        if (content == null) {
+            return null;
+        }
+
+        OffsetIndex newIndex = OffsetIndex.create(indexPath, attributes.size(), attributes.lastModifiedTime().toMillis());
+
+        try (ObjectReader<T> reader = format == StorageFormat.BINARY
+                ? new BinaryObjectReader<T>(content, binaryFormat, FilePath)
+                : new TextObjectReader<T>(content, codec, delimiter, deletionDelimiter, FilePath)) {
+            while (reader.next()) {
+                if (reader.getDeletedId() != null) {
+                    newIndex.remove(reader.getDeletedId());
+                } else {
+                    newIndex.put((Integer) idField.get(reader.getObject()), reader.getLastOffset(), reader.getLastLength());
+                }
+            }
+
+            updateRecordCounts(newIndex.ids().size(), reader.getRecordNumber());
+        }
+
+        try {
+            newIndex.save();
+        } catch (IOException e) {
+            // The index still works in memory, it just has to be rebuilt next time
+            System.err.println("Error while saving index at: " + indexPath);
+        }
+
+        return newIndex;
+    }
+
+    // Records the number of live and obsolete records found by a full read
+    private void updateRecordCounts(long live, long total) {
+        liveRecords = live;
+        obsoleteRecords = total - live;
+    }
+
+    // Checks whether the loaded index still matches the data file
+    private boolean isIndexInSync() {
+        if (index == null) {
+            return false;
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(FilePath), BasicFileAttributes.class);
+
+            return index.matches(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Adds appended records to the index and persists the new entries
+    private void indexAppendedRecords(List<T> objects, long[] offsets, int[] lengths) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(FilePath), BasicFileAttributes.class);
+            int[] ids = new int[objects.size()];
+
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = (Integer) idField.get(objects.get(i));
+            }
+
+            index.appendAll(ids, offsets, lengths, attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException | ApplicationError e) {
+            // Drop the index, it will be rebuilt on the next lookup
+            index = null;
+        }
+    }
+
+    // Removes a deleted object from the index and persists the removal
+    private void indexRemovedRecord(int id) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(FilePath), BasicFileAttributes.class);
+
+            index.appendRemoval(id, attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            // Drop the index, it will be rebuilt on the next lookup
+            index = null;
+        }
+    }
+
+    /**
+     * Checks whether the cached objects still reflect the data file on disk.
+     *
+     * @return true if cachedData can be served without reading the file.
+     */
+    private boolean isCacheInSync() {
+        return cachedData != null && isInSync();
+    }
+
+    /**
+     * Checks whether the listeners (and the cache) still reflect the data
+     * file on disk. They are considered stale when the file's size or
+     * modification time differs from the values recorded when it was last
+     * read or written.
+     *
+     * @return true if the data file doesn't need to be read again.
+     */
+    private boolean isInSync() {
+        if (!loaded) {
+            return false;
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(FilePath), BasicFileAttributes.class);
+
+            return attributes.size() == cachedSize && attributes.lastModifiedTime().equals(cachedModifiedTime);
+        } catch (IOException e) {
+            // The file is missing or unreadable, so it no longer matches the cache
+            return false;
+        }
+    }
+
+    /**
+     * Records the current size and modification time of the data file as the
+     * state the cache is in sync with.
+     */
+    private void updateCacheStamp() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(FilePath), BasicFileAttributes.class);
+
+            cachedSize = attributes.size();
+            cachedModifiedTime = attributes.lastModifiedTime();
+        } catch (IOException e) {
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Drops the cached objects so that the next read parses the file again.
+     */
+    public synchronized void invalidateCache() {
+        cachedData = null;
+        loaded = false;
+        cachedSize = -1;
+        cachedModifiedTime = null;
+    }
+
+    /**
+     * Checks whether a binary data file is missing, empty or written with the
+     * current schema of the model.
+     *
+     * @param path Path to the data file.
+     * @return true if new records can be appended to the file.
+     */
+    private boolean hasCurrentBinarySchema(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return true;
+        }
+
+        try (InputStream input = Files.newInputStream(path)) {
+            return binaryFormat.hasCurrentSchema(input.readNBytes(binaryFormat.getHeaderLength()));
+        }
+    }
+
+    // Joins two byte arrays
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+
+    /**
+     * Checks whether the given file is empty or its last byte is a new line.
+     *
+     * @param path Path to the data file.
+     * @return true if a new block can be appended directly.
+     */
+    private boolean endsWithNewLine(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return true;
+        }
+
+        try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size == 0) {
+                return true;
+            }
+
+            // Read only the last byte of the file
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(size - 1);
+            channel.read(lastByte);
+
+            return lastByte.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Converts a generic object into a multi-line formatted string using the
+     * model's codec.
+     *
+     * @param object The object to be converted.
+     * @return A formatted string representation (e.g., "key: value").
+     * @throws ApplicationError if there's an issue accessing the object's
+     * fields.
+     */
+    private String stringifyObject(T object) throws ApplicationError {
+        StringBuilder sb = new StringBuilder();
+        sb.append(delimiter).append("\n");
+
+        // Append the formatted "key: value" line for each field
+        for (ModelCodec.FieldCodec field : codec.getFields()) {
+            sb.append(field.getName())
+                    .append(": ")
+                    .append(field.format(object))
+                    .append("\n");
+        }
+
+        // Return the complete string.
+        return sb.toString();
+    }
+
+    /**
+     * Builds the deletion marker for the given id.
+     *
+     * @param id The id of the deleted object.
+     * @return The marker block (e.g., "------- DELETED -------\nid: 3\n").
+     */
+    private String stringifyDeletion(int id) {
+        return deletionDelimiter + "\n" + "id: " + id + "\n";
+    }
+
+    // Saves data from "retrievedData" to the data file
+    public synchronized void saveData(List<T> retrievedData) throws ApplicationError {
+        byte[] content;
+
+        if (format == StorageFormat.BINARY) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.writeBytes(binaryFormat.getHeader());
+
+            for (T object : retrievedData) {
+                out.writeBytes(binaryFormat.encode(object));
+            }
+
+            content = out.toByteArray();
+        } else {
+            StringBuilder sb = new StringBuilder();
+
+            for (T object : retrievedData) {
+                // Append the stringified object
+                sb.append(stringifyObject(object));
+            }
+
+            // Get the final string content
+            content = sb.toString().trim().getBytes(StandardCharsets.UTF_8);
+        }
+
+        try {
+            // Create a Path object from our FilePath
+            Path path = Path.of(FilePath);
+            Path tempPath = Path.of(FilePath + ".tmp");
+            boolean sync = syncPolicy != SyncPolicy.NEVER;
+
+            // The log is cleared before the file is replaced, so logged appends must be on disk first
+            checkpoint();
+
+            // Write the content to a temporary file and swap it in, so the data file is never half written
+            Files.write(tempPath, content);
+            if (sync) {
+                FileSync.forceFile(tempPath);
+            }
+
+            replaceDataFile(tempPath, path);
+
+            // Make the rename itself durable
+            if (sync) {
+                FileSync.forceParentDirectory(path);
+            }
+
+        } catch (IOException e) {
+            System.err.println("Error while saving data: " + e.getMessage());
+            e.printStackTrace();
+
+            invalidateCache();
+            throw new ApplicationError("Failed to save data to file: " + FilePath, e);
+        }
+
+        // Write through to the cache
+        cachedData = cacheEnabled ? new ArrayList<T>(retrievedData) : null;
+        loaded = true;
+        updateCacheStamp();
+
+        // Positions have changed, so the index is rebuilt on the next lookup
+        index = null;
+
+        // The file no longer holds any obsolete records
+        updateRecordCounts(retrievedData.size(), retrievedData.size());
+
+        for (DataStoreListener<T> listener : listeners) {
+            listener.dataLoaded(Collections.unmodifiableList(retrievedData));
+        }
+    }
+
+    /**
+     * Replaces the data file with a new version. Mappings of a memory mapped
+     * data file are only released once they are garbage collected, and on
+     * some platforms (e.g. Windows) a mapped file cannot be replaced, so the
+     * move is retried after a collection.
+     *
+     * @param tempPath The new version.
+     * @param path The data file.
+     */
+    private void replaceDataFile(Path tempPath, Path path) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                try {
+                    Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                return;
+            } catch (IOException e) {
+                if (!memoryMapped || attempt == REPLACE_ATTEMPTS) {
+                    throw e;
+                }
+
+                System.gc();
+
+                try {
+                    Thread.sleep(50L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves all objects in the data file. Objects are served from memory
+     * as long as the file hasn't changed on disk since it was last read or
+     * written (and caching is enabled), otherwise the file is parsed again.
+     *
+     * @return A new list containing the stored objects, which the caller is
+     * free to modify.
+     * @throws ApplicationError if the data file cannot be parsed.
+     */
+    public synchronized ArrayList<T> retrieveData() throws ApplicationError {
+        if (!isCacheInSync()) {
+            invalidateCache();
+
+            // Record the file state before reading so that a concurrent change triggers another reload
+            updateCacheStamp();
+
+            ArrayList<T> data = readDataFile();
+
+            for (DataStoreListener<T> listener : listeners) {
+                listener.dataLoaded(Collections.unmodifiableList(data));
+            }
+
+            // Don't cache the result if the file could not be stat'ed (e.g. it's missing)
+            if (cachedSize == -1) {
+                return data;
+            }
+
+            loaded = true;
+            scheduleCompactionIfNeeded();
+
+            if (!cacheEnabled) {
+                return data;
+            }
+
+            cachedData = data;
+        }
+
+        return new ArrayList<T>(cachedData);
+    }
+
+    /**
+     * Hands the objects of the data file to the listeners in batches, so
+     * that only one batch is held in memory at a time. Listeners first
+     * receive an empty dataLoaded() call, then objectsAdded() for each batch.
+     */
+    private void streamToListeners() throws ApplicationError {
+        for (DataStoreListener<T> listener : listeners) {
+            listener.dataLoaded(List.of());
+        }
+
+        // Objects written before their deletion marker are skipped while streaming
+        Map<Integer, Long> deletions = new HashMap<>();
+        long totalRecords = findDeletions(deletions);
+        long liveObjects = 0;
+
+        ObjectReader<T> reader = openReader();
+        if (reader == null) {
+            return;
+        }
+
+        List<T> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+
+        try (Stream<T> objects = reader.stream(deletions, idField)) {
+            Iterator<T> iterator = objects.iterator();
+
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                liveObjects++;
+
+                if (batch.size() == STREAM_BATCH_SIZE) {
+                    notifyObjectsAdded(batch);
+                    batch = new ArrayList<>(STREAM_BATCH_SIZE);
+                }
+            }
+        } catch (IllegalStateException e) {
+            // The stream wraps decoding errors
+            if (e.getCause() instanceof ApplicationError error) {
+                throw error;
+            }
+
+            throw e;
+        }
+
+        if (!batch.isEmpty()) {
+            notifyObjectsAdded(batch);
+        }
+
+        updateRecordCounts(liveObjects, totalRecords);
+    }
+
+    private void notifyObjectsAdded(List<T> objects) {
+        for (DataStoreListener<T> listener : listeners) {
+            listener.objectsAdded(Collections.unmodifiableList(objects));
+        }
+    }
+
+    /**
+     * Finds the deletion markers in the data file without decoding any
+     * objects.
+     *
+     * @param deletions Receives the number of the last deletion marker for
+     * each deleted id.
+     * @return Total number of records in the data file.
+     */
+    private long findDeletions(Map<Integer, Long> deletions) throws ApplicationError {
+        try (ObjectReader<T> reader = openReader()) {
+            if (reader == null) {
+                return 0;
+            }
+
+            reader.setDecodeObjects(false);
+
+            while (reader.next()) {
+                if (reader.getDeletedId() != null) {
+                    deletions.put(reader.getDeletedId(), reader.getRecordNumber());
+                }
+            }
+
+            return reader.getRecordNumber();
+        } catch (IOException e) {
+            System.err.println("Error while closing data file: " + FilePath);
+
+            return 0;
+        }
+    }
+
+    // Reads and parses every object in the data file, applying deletion markers
+    private ArrayList<T> readDataFile() throws ApplicationError {
+        ArrayList<T> data = new ArrayList<T>();
+
+        // Position in data of the latest object with each id
+        Map<Integer, Integer> positions = new HashMap<>();
+        boolean hasDeletions = false;
+
+        try (ObjectReader<T> reader = openReader()) {
+            if (reader == null) {
+                return data;
+            }
+
+            // Decode records one at a time
+            while (reader.next()) {
+                Integer deletedId = reader.getDeletedId();
+
+                if (deletedId != null) {
+                    Integer position = positions.remove(deletedId);
+                    if (position != null) {
+                        data.set(position, null);
+                    }
+
+                    hasDeletions = true;
+                    continue;
+                }
+
+                T object = reader.getObject();
+                if (idField != null) {
+                    positions.put((Integer) idField.get(object), data.size());
+                }
+
+                data.add(object);
+            }
+
+            if (hasDeletions) {
+                data.removeIf(object -> object == null);
+            }
+
+            updateRecordCounts(data.size(), reader.getRecordNumber());
+        } catch (IOException e) {
+            System.err.println("Error while closing data file: " + FilePath);
+        }
+
+        return data;
+    }
+
+    /**
+     * Enables or disables reading the data file through a memory mapping.
+     * Mapped reads decode objects straight out of the file's pages instead of
+     * copying the content into the heap, which suits large files such as the
+     * order history.
+     *
+     * @param memoryMapped true to read via FileChannel.map.
+     */
+    public synchronized void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Reads the whole data file into a buffer (mapped if memory mapped reads
+     * are enabled, copied into the heap otherwise, so that the file isn't
+     * held open by a mapping it didn't ask for).
+     *
+     * @return The content, or null if the file is too large to be read as a
+     * single buffer.
+     */
+    private ByteBuffer readWholeFile() throws IOException {
+        long size = Files.size(Path.of(FilePath));
+
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        return readRegion(0, (int) size);
+    }
+
+    /**
+     * Opens a streaming reader over the data file.
+     *
+     * @return The reader, or null if the data file cannot be opened.
+     */
+    private ObjectReader<T> openReader() {
+        try {
+            if (memoryMapped) {
+                ByteBuffer mapped = readWholeFile();
+
+                if (mapped != null) {
+                    return format == StorageFormat.BINARY
+                            ? new BinaryObjectReader<T>(mapped, binaryFormat, FilePath)
+                            : new TextObjectReader<T>(mapped, codec, delimiter, deletionDelimiter, FilePath);
+                }
+            }
+
+            if (format == StorageFormat.BINARY) {
+                DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(FilePath))));
+
+                return new BinaryObjectReader<T>(input, binaryFormat, FilePath);
+            }
+
+            BufferedReader reader = Files.newBufferedReader(Path.of(FilePath), StandardCharsets.UTF_8);
+
+            return new TextObjectReader<T>(reader, codec, delimiter, deletionDelimiter, FilePath);
+        } catch (IOException e) {
+            System.err.println("Error while reading data at: " + FilePath);
+
+            return null;
+        }
     }
 }
@@ -0,0 +1,38 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.List;
+
+/**
+ * Receives changes to the objects of a data store, so that in-memory
+ * structures derived from them (e.g. secondary indexes) can be kept in sync
+ * without reloading the data file.
+ *
+ * Callbacks are invoked while the data store is locked, so they should only
+ * update in-memory state.
+ *
+ * @author Shanuka
+ */
+public interface DataStoreListener<T> {
+
+    /**
+     * Called when the full content of the data file has been read or
+     * rewritten. Any previously received state should be replaced.
+     *
+     * @param objects All stored objects (read only).
+     */
+    void dataLoaded(List<T> objects);
+
+    /**
+     * Called after objects have been appended to the data file.
+     *
+     * @param objects The added objects (read only).
+     */
+    void objectsAdded(List<T> objects);
+
+    /**
+     * Called after an object has been deleted from the data file.
+     *
+     * @param object The deleted object.
+     */
+    void objectRemoved(T object);
+}
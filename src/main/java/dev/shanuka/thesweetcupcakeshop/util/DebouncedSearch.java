@@ -0,0 +1,132 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Runs a search as the user types, without blocking the Swing event
+ * dispatch thread.
+ *
+ * Keystrokes are debounced: the search only starts once the query has stopped
+ * changing for a short delay. It then runs on a virtual thread, and starting a
+ * new search cancels the previous one if it hasn't started yet. A search that
+ * is already running is not interrupted (an interrupt would close the data
+ * file channel it reads from), it completes and its result is dropped. Only
+ * the result of the latest query is handed back, on the event dispatch
+ * thread.
+ *
+ * All methods must be called on the event dispatch thread.
+ *
+ * @author Shanuka
+ */
+public class DebouncedSearch<T> {
+
+    // Runs the searches (one virtual thread per search)
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * A search that may fail.
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+
+        T run(String query) throws ApplicationError;
+    }
+
+    private final Query<T> query;
+    private final Consumer<T> onResult;
+    private final Consumer<ApplicationError> onError;
+
+    // Fires once the query has stopped changing
+    private final Timer timer;
+
+    // Query to run when the timer fires
+    private String pendingQuery;
+
+    // Search in progress, and the number of the latest search (results of older searches are dropped)
+    private Future<?> running;
+    private long generation = 0;
+
+    /**
+     * @param delayMillis Time the query must stay unchanged before it is run.
+     * @param query The search to run.
+     * @param onResult Receives the result of the latest query (on the event
+     * dispatch thread).
+     * @param onError Receives the error of the latest query if it fails (on
+     * the event dispatch thread).
+     */
+    public DebouncedSearch(int delayMillis, Query<T> query, Consumer<T> onResult, Consumer<ApplicationError> onError) {
+        this.query = query;
+        this.onResult = onResult;
+        this.onError = onError;
+
+        timer = new Timer(delayMillis, event -> start(pendingQuery));
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Schedules a search, replacing any search that hasn't completed yet.
+     *
+     * @param text The query.
+     */
+    public void submit(String text) {
+        pendingQuery = text;
+        timer.restart();
+    }
+
+    /**
+     * Runs a search right away, replacing any search that hasn't completed
+     * yet.
+     *
+     * @param text The query.
+     */
+    public void submitNow(String text) {
+        timer.stop();
+        start(text);
+    }
+
+    /**
+     * Cancels the pending search, and drops the result of a running one.
+     */
+    public void cancel() {
+        timer.stop();
+        generation++;
+
+        // Don't interrupt a running search; its result is dropped as it's no longer the latest
+        if (running != null) {
+            running.cancel(false);
+            running = null;
+        }
+    }
+
+    private void start(String text) {
+        cancel();
+
+        long searchGeneration = generation;
+
+        running = executor.submit(() -> {
+            try {
+                T result = query.run(text);
+
+                deliver(searchGeneration, () -> onResult.accept(result));
+            } catch (ApplicationError e) {
+                deliver(searchGeneration, () -> onError.accept(e));
+            }
+        });
+    }
+
+    // Hands a result to the event dispatch thread, unless a newer search has started since
+    private void deliver(long searchGeneration, Runnable callback) {
+        SwingUtilities.invokeLater(() -> {
+            if (searchGeneration == generation) {
+                running = null;
+                callback.run();
+            }
+        });
+    }
+}
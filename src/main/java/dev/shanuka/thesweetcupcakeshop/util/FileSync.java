@@ -0,0 +1,50 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Flushes files and directories to disk, for writes that must survive a
+ * crash or power loss.
+ *
+ * @author Shanuka
+ */
+public final class FileSync {
+    private FileSync() { }
+
+    /**
+     * Flushes a file's content and metadata to disk.
+     *
+     * @param path The file.
+     * @throws IOException if the file cannot be opened or flushed.
+     */
+    public static void forceFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Flushes the directory holding a file to disk, so that a rename or
+     * creation of the file is durable. Best effort: some platforms (e.g.
+     * Windows) can't open a directory as a channel, in which case this does
+     * nothing.
+     *
+     * @param path A file in the directory.
+     */
+    public static void forceParentDirectory(Path path) {
+        Path directory = path.toAbsolutePath().getParent();
+
+        if (directory == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // The platform doesn't support flushing directories
+        }
+    }
+}
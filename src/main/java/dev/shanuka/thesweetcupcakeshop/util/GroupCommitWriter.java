@@ -0,0 +1,178 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes objects to a data store on a single background thread.
+ *
+ * Submissions are queued, and every object waiting in the queue when the
+ * writer picks up work is appended with a single write (group commit), so
+ * concurrent submissions share one flush to disk instead of paying for one
+ * each.
+ *
+ * An optional preparer is applied to each object right before it is written
+ * (e.g. to assign its id at commit time).
+ *
+ * @author Shanuka
+ */
+public class GroupCommitWriter<T> {
+
+    // Largest number of objects appended with a single write
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final DataStore<T> dataStore;
+
+    // Applied to each object right before it is written (null to write objects as submitted)
+    private final Preparer<T> preparer;
+
+    // Objects waiting to be written (bounded, so that submitters wait when the disk can't keep up)
+    private final BlockingQueue<PendingWrite<T>> queue;
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param dataStore Data store to write to.
+     * @param capacity Maximum number of objects waiting to be written.
+     * @param name Name of the writer thread.
+     */
+    public GroupCommitWriter(DataStore<T> dataStore, int capacity, String name) {
+        this(dataStore, capacity, name, null);
+    }
+
+    /**
+     * Creates a writer that prepares each object right before writing it, and
+     * starts its background thread.
+     *
+     * @param dataStore Data store to write to.
+     * @param capacity Maximum number of objects waiting to be written.
+     * @param name Name of the writer thread.
+     * @param preparer Returns the object to write in place of each submitted
+     * object.
+     */
+    public GroupCommitWriter(DataStore<T> dataStore, int capacity, String name, Preparer<T> preparer) {
+        this.dataStore = dataStore;
+        this.preparer = preparer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Thread writerThread = new Thread(this::run, name);
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        // Write whatever is still queued when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::writeQueued, name + "-shutdown"));
+    }
+
+    /**
+     * Queues an object to be written. Waits if the queue is full.
+     *
+     * @param object The object to write.
+     * @return A future that completes with the written (prepared) object once
+     * it has been written, or exceptionally if writing fails.
+     */
+    public CompletableFuture<T> submit(T object) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            queue.put(new PendingWrite<>(object, future));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(new ApplicationError("Interrupted while queueing data to be written", e));
+        }
+
+        return future;
+    }
+
+    // Writes queued objects in batches until the application exits
+    private void run() {
+        List<PendingWrite<T>> batch = new ArrayList<>();
+
+        while (true) {
+            try {
+                // Wait for the first object, then take everything else that has queued up
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // Writes the objects that are still queued (used on shutdown)
+    private void writeQueued() {
+        List<PendingWrite<T>> batch = new ArrayList<>();
+        queue.drainTo(batch);
+
+        write(batch);
+    }
+
+    // Appends a batch with a single write and completes its futures
+    private void write(List<PendingWrite<T>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<PendingWrite<T>> prepared = new ArrayList<>(batch.size());
+        List<T> objects = new ArrayList<>(batch.size());
+
+        for (PendingWrite<T> pendingWrite : batch) {
+            try {
+                if (preparer != null) {
+                    pendingWrite.object = preparer.prepare(pendingWrite.object);
+                }
+
+                prepared.add(pendingWrite);
+                objects.add(pendingWrite.object);
+            } catch (ApplicationError | RuntimeException e) {
+                // Only this object fails, the rest of the batch is still written
+                pendingWrite.future.completeExceptionally(e);
+            }
+        }
+
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        try {
+            dataStore.addAll(objects);
+
+            for (PendingWrite<T> pendingWrite : prepared) {
+                pendingWrite.future.complete(pendingWrite.object);
+            }
+        } catch (ApplicationError | RuntimeException e) {
+            for (PendingWrite<T> pendingWrite : prepared) {
+                pendingWrite.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Prepares an object right before it is written.
+     */
+    @FunctionalInterface
+    public interface Preparer<T> {
+
+        T prepare(T object) throws ApplicationError;
+    }
+
+    /**
+     * An object waiting to be written, along with the future to complete.
+     */
+    private static final class PendingWrite<T> {
+
+        private T object;
+        private final CompletableFuture<T> future;
+
+        private PendingWrite(T object, CompletableFuture<T> future) {
+            this.object = object;
+            this.future = future;
+        }
+    }
+}
@@ -3,10 +3,7 @@ package dev.shanuka.thesweetcupcakeshop.util;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
-import java.util.Collection;
 import java.util.EventObject;
-import java.util.Set;
-import java.util.TreeSet;
 import javax.swing.AbstractCellEditor;
 import javax.swing.JButton;
 import javax.swing.JLabel;
@@ -26,51 +23,6 @@ import javax.swing.table.TableCellRenderer;
 public final class Helpers {
     private Helpers() { }
 
-    /**
-     * Generates the first available integer ID from a collection of used IDs
-     * 
-     * If used IDs are [1, 2, 4], returns 3
-     * If IDs are continuous (e.g. [1, 2, 3]), returns the next id (4)
-     * If no IDs are provided or the collection is null, returns 1
-     * If IDs are [2, 3, 4], returns 1
-     *
-     * @param usedIds A Collection of integer IDs that are already in use
-     * @return The first available (smallest) positive integer ID
-     */
-    public static int generateNextAvailableId(Collection<Integer> usedIds) {
-        // If the provided collection is null or empty, the first ID is 1
-        if (usedIds == null || usedIds.isEmpty()) {
-            return 1;
-        }
-
-        // Add all unique, positive IDs into a sorted set
-        Set<Integer> sortedIds = new TreeSet<>();
-        for (Integer id : usedIds) {
-            if (id != null && id > 0) {
-                sortedIds.add(id);
-            }
-        }
-
-        int expectedId = 1;
-
-        // Find the first missing id by iterating through the sorted set
-        for (Integer id : sortedIds) {
-            if (id > expectedId) {
-                
-                // A gap was found. The current expectedId is the first available.
-                break;
-            }
-
-            if (id.equals(expectedId)) {
-                // This ID exists, so increment to check for the next one
-                expectedId++;
-            }
-        }
-
-        // If no gap was found, expectedId will be max id + 1
-        return expectedId;
-    }
-    
     /**
      * Applies a set of styles to the given table
      *
@@ -124,4 +76,29 @@ public final class Helpers {
         // Set data row height to match padding
         table.setRowHeight(35);
     }
+
+    /**
+     * Escapes text to be shown as is within HTML (e.g. in an HTML label or
+     * tooltip)
+     *
+     * @param text Text to escape
+     * @return The text with &, <, > and " replaced by their entities
+     */
+    public static String escapeHtml(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+
+        return escaped.toString();
+    }
 }
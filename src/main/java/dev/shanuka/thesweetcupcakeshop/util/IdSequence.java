@@ -0,0 +1,142 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persistent, monotonically increasing id sequence.
+ *
+ * Ids are reserved in blocks: the sequence file only holds the end of the
+ * current block, so it is written once per block instead of once per id.
+ * After a restart the sequence continues from the end of the last reserved
+ * block, which means unused ids of that block are skipped but an id is never
+ * handed out twice. It never starts below the initial value either, so ids
+ * stay unique if the sequence file is lost, corrupt or older than the data.
+ *
+ * @author Shanuka
+ */
+public class IdSequence {
+
+    // Path to the sequence file
+    private final Path path;
+
+    // Number of ids reserved with each write to the sequence file
+    private final int blockSize;
+
+    // Provides the lowest id the sequence may continue from when it is loaded
+    private final InitialValue initialValue;
+
+    // Next id to hand out, and the end (exclusive) of the reserved block (-1 until loaded)
+    private int next = -1;
+    private int reservedUntil = -1;
+
+    /**
+     * @param path Path to the sequence file.
+     * @param blockSize Number of ids reserved with each write.
+     * @param initialValue Provides the lowest id the sequence may hand out
+     * after it is loaded (e.g. the highest existing id + 1).
+     */
+    public IdSequence(Path path, int blockSize, InitialValue initialValue) {
+        this.path = path;
+        this.blockSize = blockSize;
+        this.initialValue = initialValue;
+    }
+
+    /**
+     * Hands out the next id.
+     *
+     * @return The id.
+     * @throws ApplicationError if the sequence file cannot be read or written.
+     */
+    public synchronized int next() throws ApplicationError {
+        load();
+
+        // Reserve the next block before handing out any id from it
+        if (next >= reservedUntil) {
+            reserve(next + blockSize);
+        }
+
+        return next++;
+    }
+
+    /**
+     * Returns the id the next call to next() will hand out, without using it.
+     *
+     * @return The next id.
+     * @throws ApplicationError if the sequence file cannot be read.
+     */
+    public synchronized int peek() throws ApplicationError {
+        load();
+
+        return next;
+    }
+
+    // Reads the sequence file on first use
+    private void load() throws ApplicationError {
+        if (next != -1) {
+            return;
+        }
+
+        String stored;
+
+        try {
+            stored = Files.exists(path) ? Files.readString(path, StandardCharsets.UTF_8).trim() : "1";
+        } catch (IOException e) {
+            throw new ApplicationError("Error while reading id sequence at: " + path, e);
+        }
+
+        int lowest = Math.max(1, initialValue.get());
+
+        try {
+            // The stored value is behind the data if ids were written without it (e.g. a restored backup)
+            next = Math.max(Integer.parseInt(stored), lowest);
+
+            // Nothing is reserved until the first id is handed out
+            reservedUntil = next;
+        } catch (NumberFormatException e) {
+            // An empty or corrupt file (e.g. a write cut short); continue after the data and replace it
+            System.err.println("Invalid id sequence at: " + path + ", continuing from " + lowest);
+
+            reserve(lowest);
+            next = lowest;
+        }
+    }
+
+    // Persists the end of a newly reserved block
+    private void reserve(int end) throws ApplicationError {
+        Path tempPath = Path.of(path + ".tmp");
+
+        try {
+            Files.writeString(tempPath, Integer.toString(end), StandardCharsets.UTF_8);
+
+            FileSync.forceFile(tempPath);
+
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // Make the rename itself durable, so a reserved block is never handed out again after a power loss
+            FileSync.forceParentDirectory(path);
+        } catch (IOException e) {
+            throw new ApplicationError("Error while saving id sequence at: " + path, e);
+        }
+
+        reservedUntil = end;
+    }
+
+    /**
+     * Provides the lowest id a sequence may continue from.
+     */
+    @FunctionalInterface
+    public interface InitialValue {
+
+        int get() throws ApplicationError;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import java.util.function.Function;
+import javax.swing.JButton;
+
+/**
+ * Table model listing items (ID, name, category and price) with a button for
+ * each item, formatted as the rows are shown.
+ *
+ * @author Shanuka
+ */
+public class ItemTableModel extends ListTableModel<Item> {
+
+    /**
+     * @param button Creates the button of an item's row (e.g. to delete it).
+     */
+    public ItemTableModel(Function<Item, JButton> button) {
+        super(
+                // Format the ID (makes it three digit)
+                Column.of("Item ID", item -> String.format("%03d", item.getId())),
+                Column.of("Item Name", Item::getName),
+                Column.of("Category", Item::getCategory),
+                Column.of("Price", item -> AppConstants.NUMBER_FORMAT.format(item.getPrice().toBigDecimal()) + " LKR"),
+                Column.button("", button));
+    }
+}
@@ -0,0 +1,162 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import javax.swing.JButton;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model that shows a list of objects directly, one object per row.
+ *
+ * Cell values are computed from the row's object when the table asks for
+ * them, so only the visible rows are ever formatted, and replacing the list
+ * fires a single table event however many rows it has. The button of a
+ * button column is only created when its row is first shown, and is then
+ * reused until the list is replaced.
+ *
+ * Must only be used on the event dispatch thread.
+ *
+ * @author Shanuka
+ */
+public class ListTableModel<T> extends AbstractTableModel {
+
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Class<?>> columnClasses = new ArrayList<>();
+    private final List<Function<T, Object>> columnValues = new ArrayList<>();
+
+    // Index of the button column (-1 if there is none), and the function creating a row's button
+    private int buttonColumn = -1;
+    private Function<T, JButton> buttonFactory;
+
+    private List<T> rows = List.of();
+
+    // Buttons of the rows shown so far (null until a row's button is needed)
+    private JButton[] buttons = new JButton[0];
+
+    /**
+     * @param columns Columns of the table, in order (at most one of them can
+     * be a button column).
+     */
+    @SafeVarargs
+    public ListTableModel(Column<T>... columns) {
+        for (Column<T> column : columns) {
+            if (column.button != null) {
+                buttonColumn = columnNames.size();
+                buttonFactory = column.button;
+            }
+
+            columnNames.add(column.name);
+            columnClasses.add(column.type);
+            columnValues.add(column.value);
+        }
+    }
+
+    /**
+     * Replaces the rows.
+     *
+     * @param rows Objects to show (the list is used as is, and must not be
+     * changed afterwards).
+     */
+    public void setRows(List<T> rows) {
+        this.rows = rows;
+        buttons = new JButton[rows.size()];
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * @param row Row index.
+     * @return The object shown in a row.
+     */
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columnClasses.get(column);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == buttonColumn;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == buttonColumn) {
+            if (buttons[row] == null) {
+                buttons[row] = buttonFactory.apply(rows.get(row));
+            }
+
+            return buttons[row];
+        }
+
+        return columnValues.get(column).apply(rows.get(row));
+    }
+
+    /**
+     * Definition of a column of a ListTableModel.
+     *
+     * @param <T> Type of the rows' objects.
+     */
+    public static final class Column<T> {
+
+        private final String name;
+        private final Class<?> type;
+        private final Function<T, Object> value;
+        private final Function<T, JButton> button;
+
+        private Column(String name, Class<?> type, Function<T, Object> value, Function<T, JButton> button) {
+            this.name = name;
+            this.type = type;
+            this.value = value;
+            this.button = button;
+        }
+
+        /**
+         * @param name Column name.
+         * @param value Computes the cell value of a row's object.
+         * @return A column of the given values.
+         */
+        public static <T> Column<T> of(String name, Function<T, Object> value) {
+            return of(name, Object.class, value);
+        }
+
+        /**
+         * @param name Column name.
+         * @param type Type the table renders the cells as.
+         * @param value Computes the cell value of a row's object.
+         * @return A column of the given values, rendered as the given type.
+         */
+        public static <T> Column<T> of(String name, Class<?> type, Function<T, Object> value) {
+            return new Column<>(name, type, value, null);
+        }
+
+        /**
+         * @param name Column name.
+         * @param button Creates the button of a row's object.
+         * @return A column holding a button for each row (the only editable
+         * column, so that the button can be clicked).
+         */
+        public static <T> Column<T> button(String name, Function<T, JButton> button) {
+            return new Column<>(name, null, null, button);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts model objects to and from their "key: value" representation.
+ *
+ * A codec is compiled once per model class. Field access goes through method
+ * handles and each field keeps its own value converter, so reading or writing
+ * an object doesn't involve any reflective lookups.
+ *
+ * @author Shanuka
+ */
+public final class ModelCodec<T> {
+
+    // Codecs that have already been compiled, one per model class
+    private static final Map<Class<?>, ModelCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    // Dates are stored as ISO 8601 strings in UTC (e.g. 2025-10-22T14:45:10.123Z)
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    // Model class this codec was compiled for
+    private final Class<T> type;
+
+    // Handle to the model's default constructor, typed as () -> Object
+    private final MethodHandle constructor;
+
+    // Fields in declaration order (used when writing)
+    private final List<FieldCodec> fields;
+
+    // Fields by name (used when reading)
+    private final Map<String, FieldCodec> fieldsByName;
+
+    /**
+     * Returns the codec for the given model class, compiling it on first use.
+     *
+     * @param type The model class.
+     * @return The codec for the model class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ModelCodec<T> of(Class<T> type) {
+        return (ModelCodec<T>) codecs.computeIfAbsent(type, ModelCodec::new);
+    }
+
+    private ModelCodec(Class<T> type) {
+        this.type = type;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+
+            List<FieldCodec> fieldList = new ArrayList<>();
+            Map<String, FieldCodec> fieldMap = new HashMap<>();
+
+            for (Field field : type.getDeclaredFields()) {
+                // Only instance fields are part of the stored data
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                FieldCodec fieldCodec = new FieldCodec(field, lookup);
+
+                fieldList.add(fieldCodec);
+                fieldMap.put(fieldCodec.name, fieldCodec);
+            }
+
+            fields = Collections.unmodifiableList(fieldList);
+            fieldsByName = fieldMap;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot compile a codec for model: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Creates a new, empty instance of the model using its default constructor.
+     *
+     * @return The new instance.
+     * @throws ApplicationError if the constructor fails.
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() throws ApplicationError {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new ApplicationError("Could not create an instance of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @return The model's fields in declaration order.
+     */
+    public List<FieldCodec> getFields() {
+        return fields;
+    }
+
+    /**
+     * Finds a field by its name.
+     *
+     * @param name The field name (i.e. the key in the data file).
+     * @return The matching field, or null if the model has no such field.
+     */
+    public FieldCodec getField(String name) {
+        return fieldsByName.get(name);
+    }
+
+    /**
+     * Reads and writes a single field of the model.
+     */
+    public static final class FieldCodec {
+
+        private final String name;
+        private final Class<?> fieldType;
+
+        // (Object) -> Object
+        private final MethodHandle getter;
+
+        // (Object, Object) -> void
+        private final MethodHandle setter;
+
+        private final ValueConverter converter;
+
+        private FieldCodec(Field field, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            this.name = field.getName();
+            this.fieldType = field.getType();
+
+            getter = lookup.unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            setter = lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+            converter = converterFor(fieldType);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return fieldType;
+        }
+
+        /**
+         * Gets the field's value from the given object.
+         *
+         * @param target The object to read from.
+         * @return The field's value.
+         * @throws ApplicationError if the field cannot be read.
+         */
+        public Object get(Object target) throws ApplicationError {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw new ApplicationError("Could not read field: " + name, e);
+            }
+        }
+
+        /**
+         * Sets the field's value on the given object.
+         *
+         * @param target The object to write to.
+         * @param value The new value.
+         * @throws ApplicationError if the field cannot be written.
+         */
+        public void set(Object target, Object value) throws ApplicationError {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw new ApplicationError("Could not write field: " + name, e);
+            }
+        }
+
+        /**
+         * Gets the field's value from the given object as stored text.
+         *
+         * @param target The object to read from.
+         * @return The formatted value.
+         * @throws ApplicationError if the field cannot be read.
+         */
+        public String format(Object target) throws ApplicationError {
+            Object value = get(target);
+
+            return value == null ? "null" : converter.format(value);
+        }
+
+        /**
+         * Converts stored text to the field's type and sets it on the given
+         * object.
+         *
+         * @param target The object to write to.
+         * @param text The stored text.
+         * @throws ApplicationError if the text cannot be converted or the field
+         * cannot be written.
+         */
+        public void parse(Object target, String text) throws ApplicationError {
+            Object value;
+
+            try {
+                value = converter.parse(text);
+            } catch (RuntimeException e) {
+                throw new ApplicationError("Invalid value for field " + name + ": " + text, e);
+            }
+
+            set(target, value);
+        }
+    }
+
+    /**
+     * Converts a value between its field type and its stored text.
+     */
+    private interface ValueConverter {
+
+        Object parse(String text);
+
+        String format(Object value);
+    }
+
+    /**
+     * Picks the converter for a field type.
+     *
+     * @param fieldType The type of the field (e.g. int.class, String.class).
+     * @return The converter.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueConverter converterFor(Class<?> fieldType) {
+        if (fieldType == String.class) {
+            return new ValueConverter() {
+                public Object parse(String text) {
+                    return text;
+                }
+
+                public String format(Object value) {
+                    return (String) value;
+                }
+            };
+        }
+
+        if (fieldType == int.class || fieldType == Integer.class) {
+            return new ValueConverter() {
+                public Object parse(String text) {
+                    return Integer.valueOf(text);
+                }
+
+                public String format(Object value) {
+                    return value.toString();
+                }
+            };
+        }
+
+        if (fieldType == double.class || fieldType == Double.class) {
+            return new ValueConverter() {
+                public Object parse(String text) {
+                    return Double.valueOf(text);
+                }
+
+                public String format(Object value) {
+                    return value.toString();
+                }
+            };
+        }
+
+        // Amounts are stored in major units (e.g. 350.50)
+        if (fieldType == Money.class) {
+            return new ValueConverter() {
+                public Object parse(String text) {
+                    return Money.parse(text);
+                }
+
+                public String format(Object value) {
+                    return value.toString();
+                }
+            };
+        }
+
+        if (fieldType == Date.class) {
+            return new ValueConverter() {
+                public Object parse(String text) {
+                    return Date.from(Instant.parse(text));
+                }
+
+                public String format(Object value) {
+                    return DATE_FORMAT.format(((Date) value).toInstant());
+                }
+            };
+        }
+
+        // Enums are stored by their constant name
+        if (fieldType.isEnum()) {
+            return new ValueConverter() {
+                public Object parse(String text) {
+                    return Enum.valueOf((Class<Enum>) fieldType, text);
+                }
+
+                public String format(Object value) {
+                    return ((Enum<?>) value).name();
+                }
+            };
+        }
+
+        throw new IllegalArgumentException("Unsupported field type for conversion: " + fieldType.getName());
+    }
+}
@@ -0,0 +1,188 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base class for streaming readers that decode the records of a data file one
+ * at a time.
+ *
+ * A record is either an object or a deletion marker, which removes the object
+ * with the marked id that was written before it.
+ *
+ * @author Shanuka
+ */
+public abstract class ObjectReader<T> implements Closeable {
+
+    // Path of the data file (for error messages)
+    protected final String filePath;
+
+    // Position and length of the record read by the last call to next()
+    // (only tracked by readers that decode from a buffer, -1 otherwise)
+    protected long lastOffset = -1;
+    protected int lastLength = -1;
+
+    // Result of the last call to next(): either an object or the id of a deletion marker
+    protected T object;
+    protected Integer deletedId;
+
+    // Whether object records are decoded (otherwise they are only counted)
+    protected boolean decodeObjects = true;
+
+    // Number of records read so far
+    private long recordNumber = 0;
+
+    protected ObjectReader(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Reads the next record into object or deletedId.
+     *
+     * @return true if a record was read, false at the end of the file.
+     * @throws ApplicationError if the file cannot be read or the record
+     * cannot be decoded.
+     */
+    protected abstract boolean readRecord() throws ApplicationError;
+
+    /**
+     * Reads the next record of the file. Use getObject() or getDeletedId() to
+     * get its content.
+     *
+     * @return true if a record was read, false at the end of the file.
+     * @throws ApplicationError if the file cannot be read or the record
+     * cannot be decoded.
+     */
+    public final boolean next() throws ApplicationError {
+        object = null;
+        deletedId = null;
+
+        boolean found = readRecord();
+        if (found) {
+            recordNumber++;
+        }
+
+        return found;
+    }
+
+    /**
+     * Enables or disables decoding of objects. With decoding disabled, object
+     * records are skipped without being parsed (getObject() returns null for
+     * them), which makes a pass that only looks for deletion markers cheap.
+     *
+     * @param decodeObjects false to skip the content of object records.
+     */
+    public void setDecodeObjects(boolean decodeObjects) {
+        this.decodeObjects = decodeObjects;
+    }
+
+    /**
+     * @return The object read by the last call to next(), or null if the
+     * record was a deletion marker or objects are not being decoded.
+     */
+    public T getObject() {
+        return object;
+    }
+
+    /**
+     * @return The id removed by the deletion marker read by the last call to
+     * next(), or null if the record was an object.
+     */
+    public Integer getDeletedId() {
+        return deletedId;
+    }
+
+    /**
+     * @return Number of the last record read (starting from 1).
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * @return Offset of the last record from the beginning of the buffer, or
+     * -1 if positions are not tracked.
+     */
+    public long getLastOffset() {
+        return lastOffset;
+    }
+
+    /**
+     * @return Length of the last record in bytes, or -1 if positions are not
+     * tracked.
+     */
+    public int getLastLength() {
+        return lastLength;
+    }
+
+    /**
+     * Decodes the next object, skipping any deletion markers. Suitable for
+     * reading a single record; use next() to apply deletions.
+     *
+     * @return The next object, or null if there are no more objects.
+     * @throws ApplicationError if the file cannot be read or an object cannot
+     * be decoded.
+     */
+    public T read() throws ApplicationError {
+        while (next()) {
+            if (object != null) {
+                return object;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Exposes the remaining objects as a lazy stream. Closing the stream
+     * closes this reader. Errors while decoding are rethrown as
+     * IllegalStateException with the ApplicationError as the cause.
+     *
+     * @param deletions Number of the last deletion marker for each deleted id
+     * (objects written before the marker are skipped).
+     * @param idField Field holding each object's id.
+     * @return A sequential stream of the remaining live objects.
+     */
+    public Stream<T> stream(Map<Integer, Long> deletions, ModelCodec.FieldCodec idField) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (next()) {
+                        if (object == null) {
+                            continue; // deletion marker
+                        }
+
+                        // Skip objects that were deleted after being written
+                        Long deletedAt = deletions.get((Integer) idField.get(object));
+                        if (deletedAt != null && deletedAt > recordNumber) {
+                            continue;
+                        }
+
+                        action.accept(object);
+                        return true;
+                    }
+
+                    return false;
+                } catch (ApplicationError e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                System.err.println("Error while closing data file: " + filePath);
+            }
+        });
+    }
+}
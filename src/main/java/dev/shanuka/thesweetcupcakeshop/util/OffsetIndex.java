@@ -0,0 +1,273 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sidecar index that maps object ids to the position of their record in a
+ * data file, so that a single object can be read without parsing the whole
+ * file.
+ *
+ * The index file holds a header (magic number, size and modification time of
+ * the data file it describes) followed by fixed size entries (id, offset,
+ * length). New entries are appended, and a later entry for the same id
+ * replaces an earlier one. An entry with a negative offset records that the
+ * object has been deleted.
+ *
+ * @author Shanuka
+ */
+public class OffsetIndex {
+
+    // "SCSI" (Sweet Cupcake Shop Index)
+    private static final int MAGIC = 0x53435349;
+
+    // magic (4) + data file size (8) + data file modification time (8)
+    private static final int HEADER_SIZE = 20;
+
+    // id (4) + offset (8) + length (4)
+    private static final int ENTRY_SIZE = 16;
+
+    // Path to the index file
+    private final Path indexPath;
+
+    // Position of each object's record in the data file, by id
+    private final Map<Integer, Entry> entries;
+
+    // Size and modification time (in milliseconds) of the data file the index describes
+    private long dataSize;
+    private long dataModified;
+
+    private OffsetIndex(Path indexPath, Map<Integer, Entry> entries, long dataSize, long dataModified) {
+        this.indexPath = indexPath;
+        this.entries = entries;
+        this.dataSize = dataSize;
+        this.dataModified = dataModified;
+    }
+
+    /**
+     * Creates an empty index for a data file.
+     *
+     * @param indexPath Path to the index file.
+     * @param dataSize Size of the data file.
+     * @param dataModified Modification time of the data file in milliseconds.
+     * @return The new index (not yet saved).
+     */
+    public static OffsetIndex create(Path indexPath, long dataSize, long dataModified) {
+        return new OffsetIndex(indexPath, new HashMap<>(), dataSize, dataModified);
+    }
+
+    /**
+     * Loads an index file.
+     *
+     * @param indexPath Path to the index file.
+     * @return The loaded index, or null if the file is missing or corrupted.
+     */
+    public static OffsetIndex load(Path indexPath) {
+        if (!Files.exists(indexPath)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+            int size = content.remaining();
+
+            if (size < HEADER_SIZE || (size - HEADER_SIZE) % ENTRY_SIZE != 0 || content.getInt() != MAGIC) {
+                return null;
+            }
+
+            long dataSize = content.getLong();
+            long dataModified = content.getLong();
+            Map<Integer, Entry> entries = new HashMap<>();
+
+            while (content.hasRemaining()) {
+                applyEntry(entries, content.getInt(), content.getLong(), content.getInt());
+            }
+
+            return new OffsetIndex(indexPath, entries, dataSize, dataModified);
+        } catch (IOException e) {
+            System.err.println("Error while reading index at: " + indexPath);
+
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the index describes the data file in its current state.
+     *
+     * @param size Current size of the data file.
+     * @param modified Current modification time of the data file in
+     * milliseconds.
+     * @return true if the index can be used.
+     */
+    public boolean matches(long size, long modified) {
+        return dataSize == size && dataModified == modified;
+    }
+
+    /**
+     * Finds the record of an object.
+     *
+     * @param id The object's id.
+     * @return The record's position, or null if no object has the given id.
+     */
+    public Entry get(int id) {
+        return entries.get(id);
+    }
+
+    /**
+     * @return The ids of all indexed objects.
+     */
+    public Set<Integer> ids() {
+        return entries.keySet();
+    }
+
+    /**
+     * Records the position of an object in memory (without saving).
+     *
+     * @param id The object's id.
+     * @param offset Offset of the record in the data file.
+     * @param length Length of the record in bytes.
+     */
+    public void put(int id, long offset, int length) {
+        applyEntry(entries, id, offset, length);
+    }
+
+    /**
+     * Removes an object from the index in memory (without saving).
+     *
+     * @param id The deleted object's id.
+     */
+    public void remove(int id) {
+        entries.remove(id);
+    }
+
+    /**
+     * Records the position of an appended object and persists it by
+     * appending a single entry to the index file.
+     *
+     * @param id The object's id.
+     * @param offset Offset of the record in the data file.
+     * @param length Length of the record in bytes.
+     * @param newDataSize Size of the data file after the append.
+     * @param newDataModified Modification time of the data file after the
+     * append.
+     * @throws IOException if the index file cannot be written.
+     */
+    public void append(int id, long offset, int length, long newDataSize, long newDataModified) throws IOException {
+        appendAll(new int[]{id}, new long[]{offset}, new int[]{length}, newDataSize, newDataModified);
+    }
+
+    /**
+     * Records the positions of several appended objects and persists them
+     * with a single write to the index file.
+     *
+     * @param ids The objects' ids.
+     * @param offsets Offsets of the records in the data file.
+     * @param lengths Lengths of the records in bytes.
+     * @param newDataSize Size of the data file after the append.
+     * @param newDataModified Modification time of the data file after the
+     * append.
+     * @throws IOException if the index file cannot be written.
+     */
+    public void appendAll(int[] ids, long[] offsets, int[] lengths, long newDataSize, long newDataModified) throws IOException {
+        for (int i = 0; i < ids.length; i++) {
+            put(ids[i], offsets[i], lengths[i]);
+        }
+
+        dataSize = newDataSize;
+        dataModified = newDataModified;
+
+        if (!Files.exists(indexPath)) {
+            save();
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.WRITE)) {
+            ByteBuffer newEntries = ByteBuffer.allocate(ENTRY_SIZE * ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                newEntries.putInt(ids[i]).putLong(offsets[i]).putInt(lengths[i]);
+            }
+            newEntries.flip();
+            channel.write(newEntries, channel.size());
+
+            channel.write(header(), 0);
+        }
+    }
+
+    /**
+     * Records the deletion of an object and persists it by appending a single
+     * removal entry to the index file.
+     *
+     * @param id The deleted object's id.
+     * @param newDataSize Size of the data file after the deletion marker was
+     * appended.
+     * @param newDataModified Modification time of the data file after the
+     * deletion marker was appended.
+     * @throws IOException if the index file cannot be written.
+     */
+    public void appendRemoval(int id, long newDataSize, long newDataModified) throws IOException {
+        append(id, -1, 0, newDataSize, newDataModified);
+    }
+
+    /**
+     * Writes the whole index to the index file.
+     *
+     * @throws IOException if the index file cannot be written.
+     */
+    public void save() throws IOException {
+        ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + entries.size() * ENTRY_SIZE);
+        content.put(header());
+
+        for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+            content.putInt(entry.getKey())
+                    .putLong(entry.getValue().getOffset())
+                    .putInt(entry.getValue().getLength());
+        }
+
+        Files.write(indexPath, content.array());
+    }
+
+    // Encodes the header for the current state
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putLong(dataSize).putLong(dataModified).flip();
+
+        return header;
+    }
+
+    private static void applyEntry(Map<Integer, Entry> entries, int id, long offset, int length) {
+        if (offset < 0) {
+            entries.remove(id);
+        } else {
+            entries.put(id, new Entry(offset, length));
+        }
+    }
+
+    /**
+     * Position of a single record in the data file.
+     */
+    public static final class Entry {
+
+        private final long offset;
+        private final int length;
+
+        public Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+
+/**
+ * Table model listing orders (ID, date, item, item price, quantity and total
+ * amount), formatted as the rows are shown.
+ *
+ * @author Shanuka
+ */
+public class OrderTableModel extends ListTableModel<Order> {
+
+    public OrderTableModel() {
+        super(
+                // Format the ID (makes it three digit)
+                Column.of("Order ID", String.class, order -> String.format("%03d", order.getId())),
+                Column.of("Date", String.class, order -> AppConstants.DATE_FORMAT.format(order.getDate())),
+                Column.of("Item", String.class, Order::getItem),
+                Column.of("Item Price", String.class, order -> AppConstants.NUMBER_FORMAT.format(order.getItemPrice().toBigDecimal()) + " LKR"),
+                Column.of("Quantity", String.class, Order::getQuantity),
+                Column.of("Total Amount", String.class, order -> AppConstants.NUMBER_FORMAT.format(order.getTotalAmount().toBigDecimal()) + " LKR"));
+    }
+}
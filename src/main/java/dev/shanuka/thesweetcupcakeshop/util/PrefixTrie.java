@@ -0,0 +1,111 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of words that can be looked up by prefix, e.g. to complete a partially
+ * typed word.
+ *
+ * @author Shanuka
+ */
+public class PrefixTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * Adds a word.
+     *
+     * @param word The word.
+     */
+    public void add(String word) {
+        Node node = root;
+
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), key -> new Node());
+        }
+
+        node.word = word;
+    }
+
+    /**
+     * Removes a word (its prefixes are kept if other words share them).
+     *
+     * @param word The word.
+     */
+    public void remove(String word) {
+        remove(root, word, 0);
+    }
+
+    /**
+     * Removes all words.
+     */
+    public void clear() {
+        root.children.clear();
+        root.word = null;
+    }
+
+    /**
+     * Finds the words that start with a prefix, shortest first.
+     *
+     * @param prefix The prefix.
+     * @param limit Maximum number of words to return.
+     * @return Up to limit words starting with the prefix (including the
+     * prefix itself if it is a word).
+     */
+    public List<String> withPrefix(String prefix, int limit) {
+        List<String> words = new ArrayList<>();
+        Node node = root;
+
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+
+        if (node == null) {
+            return words;
+        }
+
+        // Visit the subtree breadth first so that closer completions come first
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(node);
+
+        while (!queue.isEmpty() && words.size() < limit) {
+            Node current = queue.poll();
+
+            if (current.word != null) {
+                words.add(current.word);
+            }
+
+            queue.addAll(current.children.values());
+        }
+
+        return words;
+    }
+
+    // Removes a word below a node, and returns whether the node can be dropped
+    private static boolean remove(Node node, String word, int depth) {
+        if (depth == word.length()) {
+            node.word = null;
+        } else {
+            Node child = node.children.get(word.charAt(depth));
+
+            if (child != null && remove(child, word, depth + 1)) {
+                node.children.remove(word.charAt(depth));
+            }
+        }
+
+        return node.word == null && node.children.isEmpty();
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>(4);
+
+        // The word ending at this node, or null
+        private String word;
+    }
+}
@@ -0,0 +1,171 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Approximate heavy hitters of a weighted stream, using the Space-Saving
+ * algorithm. At most a fixed number of keys are tracked; when a new key
+ * arrives and the summary is full, it replaces the key with the smallest
+ * count and inherits that count as its error.
+ *
+ * The estimated count of a tracked key never underestimates its true count,
+ * and overestimates it by at most its error. Any key whose true count exceeds
+ * total / capacity is guaranteed to be tracked.
+ *
+ * @author Shanuka
+ */
+public class SpaceSaving<K> {
+
+    // Maximum number of tracked keys
+    private final int capacity;
+
+    // Tracked keys and their counters, also ordered by count (smallest first)
+    private final Map<K, Counter<K>> counters = new HashMap<>();
+    private final TreeSet<Counter<K>> byCount = new TreeSet<>(
+            Comparator.<Counter<K>>comparingLong(counter -> counter.count).thenComparingLong(counter -> counter.sequence)
+    );
+
+    // Tie breaker for counters with equal counts
+    private long nextSequence = 0;
+
+    // Sum of all weights seen so far
+    private long total = 0;
+
+    /**
+     * @param capacity Maximum number of tracked keys (larger values give
+     * smaller errors).
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a weighted occurrence of a key.
+     *
+     * @param key The key.
+     * @param weight Weight of the occurrence (e.g. 1 to count occurrences).
+     */
+    public void add(K key, long weight) {
+        total += weight;
+
+        Counter<K> counter = counters.get(key);
+
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+        } else if (counters.size() < capacity) {
+            counter = new Counter<>(key, weight, 0);
+            counters.put(key, counter);
+        } else {
+            // Replace the key with the smallest count
+            Counter<K> smallest = byCount.pollFirst();
+            counters.remove(smallest.key);
+
+            counter = new Counter<>(key, smallest.count + weight, smallest.count);
+            counters.put(key, counter);
+        }
+
+        counter.sequence = nextSequence++;
+        byCount.add(counter);
+    }
+
+    /**
+     * Removes a weighted occurrence of a tracked key (e.g. when an order is
+     * deleted). Untracked keys are ignored, as their count is already covered
+     * by the error of the tracked keys.
+     *
+     * @param key The key.
+     * @param weight Weight of the occurrence.
+     */
+    public void remove(K key, long weight) {
+        total -= weight;
+
+        Counter<K> counter = counters.get(key);
+
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count = Math.max(counter.count - weight, 0);
+            byCount.add(counter);
+        }
+    }
+
+    /**
+     * Removes all tracked keys.
+     */
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+        total = 0;
+    }
+
+    /**
+     * @return Sum of all weights seen so far.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Finds the keys with the highest estimated counts.
+     *
+     * @param count Maximum number of keys to return.
+     * @return Up to count counters, highest estimated count first.
+     */
+    public List<Counter<K>> top(int count) {
+        List<Counter<K>> top = new ArrayList<>(Math.min(count, counters.size()));
+
+        for (Counter<K> counter : byCount.descendingSet()) {
+            if (top.size() == count) {
+                break;
+            }
+
+            top.add(new Counter<>(counter.key, counter.count, counter.error));
+        }
+
+        return top;
+    }
+
+    /**
+     * Estimated count of a tracked key.
+     */
+    public static final class Counter<K> {
+
+        private final K key;
+        private long count;
+        private final long error;
+        private long sequence;
+
+        private Counter(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * @return Estimated count (an upper bound of the true count).
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return Maximum overestimation of the count.
+         */
+        public long getError() {
+            return error;
+        }
+    }
+}
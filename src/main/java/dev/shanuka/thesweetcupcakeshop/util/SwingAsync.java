@@ -0,0 +1,68 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.awt.Component;
+import java.awt.Cursor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Hands the results of background work back to the Swing event dispatch
+ * thread.
+ *
+ * @author Shanuka
+ */
+public final class SwingAsync {
+
+    private SwingAsync() { }
+
+    /**
+     * Runs a callback on the event dispatch thread once a future completes.
+     *
+     * @param future The background work.
+     * @param onSuccess Receives the result if the work succeeds.
+     * @param onError Receives the error if the work fails (unwrapped from
+     * any CompletionException).
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onError.accept(unwrap(error));
+            }
+        }));
+    }
+
+    /**
+     * Shows a component as busy (wait cursor, disabled) until a future
+     * completes.
+     *
+     * Must be called on the event dispatch thread.
+     *
+     * @param component The component waiting for the work.
+     * @param future The background work.
+     * @return The future, for chaining.
+     */
+    public static <T> CompletableFuture<T> whileLoading(Component component, CompletableFuture<T> future) {
+        component.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        component.setEnabled(false);
+
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            component.setCursor(Cursor.getDefaultCursor());
+            component.setEnabled(true);
+        }));
+
+        return future;
+    }
+
+    // Futures wrap errors thrown by dependent stages
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+
+        return error;
+    }
+}
@@ -0,0 +1,221 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming reader for data files in the "key: value" text format.
+ *
+ * Lines are read one at a time and applied directly to the object being
+ * decoded, so only a single object is held in memory regardless of the size
+ * of the file.
+ *
+ * @author Shanuka
+ */
+public class TextObjectReader<T> extends ObjectReader<T> {
+
+    // Source of the lines: either a reader or a (memory-mapped) buffer
+    private final BufferedReader reader;
+    private final ByteBuffer buffer;
+    private final ModelCodec<T> codec;
+    private final String delimiter;
+    private final String deletionDelimiter;
+
+    // Delimiter line that begins the next record (null once the end of the file has been reached)
+    private String pendingDelimiter;
+
+    private boolean started = false;
+
+    // Buffer positions of the last line read and of the current record's delimiter line
+    private int lineStart = -1;
+    private int objectStart = -1;
+
+    /**
+     * Creates a reader over the given text.
+     *
+     * @param reader Reader for the data file's content.
+     * @param codec Codec for the model stored in the file.
+     * @param delimiter Line that begins each object.
+     * @param deletionDelimiter Line that begins each deletion marker.
+     * @param filePath Path of the data file (for error messages).
+     */
+    public TextObjectReader(BufferedReader reader, ModelCodec<T> codec, String delimiter, String deletionDelimiter, String filePath) {
+        super(filePath);
+        this.reader = reader;
+        this.buffer = null;
+        this.codec = codec;
+        this.delimiter = delimiter;
+        this.deletionDelimiter = deletionDelimiter;
+    }
+
+    /**
+     * Creates a reader that decodes lines straight out of a buffer holding
+     * the file's UTF-8 content (e.g. a memory-mapped file), without copying
+     * the content into the heap.
+     *
+     * @param buffer Buffer positioned at the beginning of the content.
+     * @param codec Codec for the model stored in the file.
+     * @param delimiter Line that begins each object.
+     * @param deletionDelimiter Line that begins each deletion marker.
+     * @param filePath Path of the data file (for error messages).
+     */
+    public TextObjectReader(ByteBuffer buffer, ModelCodec<T> codec, String delimiter, String deletionDelimiter, String filePath) {
+        super(filePath);
+        this.reader = null;
+        this.buffer = buffer;
+        this.codec = codec;
+        this.delimiter = delimiter;
+        this.deletionDelimiter = deletionDelimiter;
+    }
+
+    @Override
+    protected boolean readRecord() throws ApplicationError {
+        try {
+            // Skip anything before the first delimiter
+            if (!started) {
+                started = true;
+                pendingDelimiter = nextDelimiter();
+                objectStart = lineStart;
+            }
+
+            if (pendingDelimiter == null) {
+                return false; // End of file
+            }
+
+            boolean deletion = pendingDelimiter.equals(deletionDelimiter);
+            T newInstance = deletion || !decodeObjects ? null : codec.newInstance();
+            Integer markedId = null;
+            String line;
+
+            // Apply each "key: value" line until the next delimiter or the end of the file
+            while ((line = nextLine()) != null) {
+                String trimmedLine = line.trim();
+
+                if (trimmedLine.equals(delimiter) || trimmedLine.equals(deletionDelimiter)) {
+                    // The next record begins at this line
+                    trackRecord(lineStart);
+                    objectStart = lineStart;
+                    pendingDelimiter = trimmedLine;
+
+                    return setRecord(deletion, newInstance, markedId);
+                }
+
+                int separator = line.indexOf(':');
+                if (separator == -1) {
+                    continue; // skip corrupted or empty lines
+                }
+
+                String key = line.substring(0, separator).trim();
+                String value = line.substring(separator + 1).trim();
+
+                // Deletion markers only hold the id of the deleted object
+                if (deletion) {
+                    if (key.equals("id")) {
+                        markedId = Integer.valueOf(value);
+                    }
+
+                    continue;
+                }
+
+                // The object is being skipped
+                if (newInstance == null) {
+                    continue;
+                }
+
+                ModelCodec.FieldCodec field = codec.getField(key);
+
+                // If the block contains a key that the model doesn't have as a field
+                if (field == null) {
+                    throw new ApplicationError("Unknown field \"" + key + "\" in data store: " + filePath);
+                }
+
+                // Convert the String value to the field type and set it on newInstance
+                field.parse(newInstance, value);
+            }
+
+            pendingDelimiter = null;
+            trackRecord(buffer != null ? buffer.limit() : -1);
+
+            return setRecord(deletion, newInstance, markedId);
+        } catch (IOException e) {
+            throw new ApplicationError("Error while reading data at: " + filePath, e);
+        } catch (ApplicationError | NumberFormatException e) {
+            throw new ApplicationError("Error while parsing data store: " + filePath, e);
+        }
+    }
+
+    // Stores the decoded record as the result of next()
+    private boolean setRecord(boolean deletion, T newInstance, Integer markedId) throws ApplicationError {
+        if (!deletion) {
+            object = newInstance;
+        } else if (markedId != null) {
+            deletedId = markedId;
+        } else {
+            throw new ApplicationError("Deletion marker without an id");
+        }
+
+        return true;
+    }
+
+    // Reads up to and including the next delimiter line (of either kind)
+    private String nextDelimiter() throws IOException {
+        String line;
+
+        while ((line = nextLine()) != null) {
+            String trimmedLine = line.trim();
+
+            if (trimmedLine.equals(delimiter) || trimmedLine.equals(deletionDelimiter)) {
+                return trimmedLine;
+            }
+        }
+
+        return null;
+    }
+
+    // Records the position of the record that ends at the given buffer position
+    private void trackRecord(int end) {
+        if (buffer != null) {
+            lastOffset = objectStart;
+            lastLength = end - objectStart;
+        }
+    }
+
+    // Reads the next line from the source (null at the end of the content)
+    private String nextLine() throws IOException {
+        if (reader != null) {
+            return reader.readLine();
+        }
+
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+
+        // Find the end of the line
+        int start = buffer.position();
+        lineStart = start;
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+
+        // Skip past the line break
+        buffer.position(end < buffer.limit() ? end + 1 : end);
+
+        // Drop the carriage return of CRLF line breaks
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        return StandardCharsets.UTF_8.decode(buffer.slice(start, end - start)).toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.model.User;
+import java.util.function.Function;
+import javax.swing.JButton;
+
+/**
+ * Table model listing users (ID, role, name and email) with a button for each
+ * user.
+ *
+ * @author Shanuka
+ */
+public class UserTableModel extends ListTableModel<User> {
+
+    /**
+     * @param button Creates the button of a user's row (e.g. to delete them).
+     */
+    public UserTableModel(Function<User, JButton> button) {
+        super(
+                Column.of("User ID", User::getId),
+                Column.of("Role", User::getRole),
+                Column.of("First Name", User::getFirstName),
+                Column.of("Last Name", User::getLastName),
+                Column.of("Email", User::getemail),
+                Column.button("Actions", button));
+    }
+}
@@ -0,0 +1,193 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log for appends to a data file.
+ *
+ * Every append is logged (offset in the data file, length, checksum and
+ * content) before it is written to the data file. If the application stops
+ * in the middle of an append, replaying the log on the next start restores
+ * the records that were logged but not fully written. The log is cleared once
+ * the data file itself has been flushed to disk.
+ *
+ * @author Shanuka
+ */
+public class WriteAheadLog {
+
+    // offset (8) + length (4) + checksum (4)
+    private static final int ENTRY_HEADER_SIZE = 16;
+
+    // Path to the log file
+    private final Path logPath;
+
+    public WriteAheadLog(Path logPath) {
+        this.logPath = logPath;
+    }
+
+    /**
+     * Logs an append to the data file.
+     *
+     * @param offset Offset in the data file the bytes will be written at.
+     * @param bytes The bytes that will be appended.
+     * @param sync true to flush the log to disk before returning.
+     * @throws IOException if the log cannot be written.
+     */
+    public void append(long offset, byte[] bytes, boolean sync) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + bytes.length);
+        entry.putLong(offset).putInt(bytes.length).putInt(checksum(bytes)).put(bytes).flip();
+
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+
+            if (sync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Flushes the logged entries to disk.
+     *
+     * @throws IOException if the log cannot be flushed.
+     */
+    public void sync() throws IOException {
+        if (!Files.exists(logPath)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * @return Size of the log in bytes.
+     * @throws IOException if the size cannot be read.
+     */
+    public long size() throws IOException {
+        return Files.exists(logPath) ? Files.size(logPath) : 0;
+    }
+
+    /**
+     * Clears the log. Only call this once every logged append has been
+     * flushed to the data file (or the data file has been replaced).
+     *
+     * @param sync true to flush the cleared log to disk before returning.
+     * @throws IOException if the log cannot be cleared.
+     */
+    public void truncate(boolean sync) throws IOException {
+        if (!Files.exists(logPath)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+
+            if (sync) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Applies the logged appends that are missing from the data file. An
+     * append that was only partly written is cut off and written again.
+     * Replay stops at the first entry that is incomplete (i.e. the
+     * application stopped while logging it) or that doesn't match the data
+     * file.
+     *
+     * @param dataPath Path to the data file.
+     * @return Number of appends that were written again.
+     * @throws IOException if the log or the data file cannot be read or
+     * written.
+     */
+    public int replay(Path dataPath) throws IOException {
+        if (size() == 0) {
+            return 0;
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(logPath));
+        int replayed = 0;
+
+        try (FileChannel data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            while (content.remaining() >= ENTRY_HEADER_SIZE) {
+                long offset = content.getLong();
+                int length = content.getInt();
+                int checksum = content.getInt();
+
+                // The entry itself was cut off
+                if (length < 0 || length > content.remaining()) {
+                    break;
+                }
+
+                byte[] bytes = new byte[length];
+                content.get(bytes);
+
+                if (checksum(bytes) != checksum) {
+                    break;
+                }
+
+                long dataSize = data.size();
+                int written = (int) Math.max(0, Math.min(dataSize - offset, length));
+
+                // The data file must hold everything before the append and whatever part of it was written
+                if (dataSize < offset || !regionMatches(data, offset, bytes, written)) {
+                    System.err.println("Write-ahead log doesn't match data file: " + dataPath);
+                    break;
+                }
+
+                if (written == length) {
+                    continue; // Already applied
+                }
+
+                // Drop the partly written append and write it again
+                data.truncate(offset);
+                ByteBuffer record = ByteBuffer.wrap(bytes);
+                while (record.hasRemaining()) {
+                    data.write(record, offset + record.position());
+                }
+
+                replayed++;
+            }
+
+            if (replayed > 0) {
+                data.force(true);
+            }
+        }
+
+        return replayed;
+    }
+
+    // Checks whether the data file holds the first "length" bytes of an append at the given offset
+    private static boolean regionMatches(FileChannel data, long offset, byte[] bytes, int length) throws IOException {
+        if (length == 0) {
+            return true;
+        }
+
+        ByteBuffer region = ByteBuffer.allocate(length);
+        while (region.hasRemaining()) {
+            if (data.read(region, offset + region.position()) == -1) {
+                return false;
+            }
+        }
+
+        return Arrays.equals(region.array(), 0, length, bytes, 0, length);
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        return (int) crc.getValue();
+    }
+}
@@ -1,22 +1,20 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard;
 
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
-import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
 import dev.shanuka.thesweetcupcakeshop.model.Category;
-import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonCellEditor;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonRenderer;
+import dev.shanuka.thesweetcupcakeshop.util.CategoryTableModel;
 import dev.shanuka.thesweetcupcakeshop.util.Fonts;
 import dev.shanuka.thesweetcupcakeshop.util.Helpers;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs.AddCategoryDialog;
 import java.awt.event.ActionEvent;
 import java.util.List;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
-import javax.swing.SwingUtilities;
-import javax.swing.table.DefaultTableModel;
 
 /**
  * Categories panel of user dashboard
@@ -28,6 +26,9 @@ public class CategoriesPanel extends javax.swing.JPanel {
     // Parent frame in which the current panel is mounted
     private final JFrame parentFrame;
 
+    // Categories shown in the categories table (each with a delete button)
+    private final CategoryTableModel categoriesTableModel = new CategoryTableModel(this::createDeleteButton);
+
     /**
      * Creates new form CategoriesPanel
      *
@@ -37,14 +38,21 @@ public class CategoriesPanel extends javax.swing.JPanel {
         this.parentFrame = parentFrame;
         initComponents();
 
+        // Show the categories directly (rows are formatted as they are displayed)
+        categoriesTable.setModel(categoriesTableModel);
+
+        // Set column widths
+        categoriesTable.getColumnModel().getColumn(0).setPreferredWidth(40); // Category ID
+        categoriesTable.getColumnModel().getColumn(1).setPreferredWidth(800); // Category Name
+
+        // Add renderer & editor for button column
+        categoriesTable.getColumnModel().getColumn(2).setCellRenderer(new ButtonRenderer());
+        categoriesTable.getColumnModel().getColumn(2).setCellEditor(new ButtonCellEditor());
+
         // Format the categories table
         Helpers.formatTable(categoriesTable);
         // Load the list of categories
-        try {
-            updateCategoriesList();
-        } catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An error has been occured while loading the list of categories");
-        }
+        updateCategoriesList();
     }
 
     /**
@@ -217,11 +225,7 @@ public class CategoriesPanel extends javax.swing.JPanel {
         JDialog dialog = new JDialog(parentFrame, "Add Category", true);
         dialog.setResizable(false);
         dialog.getContentPane().add(new AddCategoryDialog(() -> {
-            try {
-                updateCategoriesList(); // Refresh the categories list
-            } catch (ApplicationError e) {
-                Messages.showError(this, "Application Error", "An error has been occured while refreshing the categories list");
-            }
+            updateCategoriesList(); // Refresh the categories list
             
             dialog.dispose(); // Close the dialog and release resources
         }));
@@ -231,71 +235,38 @@ public class CategoriesPanel extends javax.swing.JPanel {
     }
 
     /**
-     * Clears all rows from the categories table and safely restores the button renderer and editor for the last column
+     * Loads the categories in the background, then updates the categories
+     * table
      */
-    private void clearCategoriesTable() {
-        // Create a fresh model with the same columns
-        DefaultTableModel emptyModel = new DefaultTableModel(
-                new Object[]{"ID", "Name", ""}, 0
-        ) {
-            // Make the Actions column non editable except for the button
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 2; // Only the "Actions" button column is editable
-            }
-        };
-
-        // Assign the new model to the table
-        categoriesTable.setModel(emptyModel);
-
-        // Set column widths
-        categoriesTable.getColumnModel().getColumn(0).setPreferredWidth(40); // Category ID
-        categoriesTable.getColumnModel().getColumn(1).setPreferredWidth(800); // Category Name
-        
-        // Restore button renderer and editor
-        categoriesTable.getColumnModel().getColumn(2).setCellRenderer(new ButtonRenderer());
-        categoriesTable.getColumnModel().getColumn(2).setCellEditor(new ButtonCellEditor());
+    private void updateCategoriesList() {
+        SwingAsync.onEdt(SwingAsync.whileLoading(categoriesTable, AsyncServices.getAllCategories()), this::showCategories,
+                error -> Messages.showError(this, "Application Error", "An error has been occured while loading the list of categories"));
     }
 
     /**
-     * Updates the categories table
+     * Replaces the rows of the categories table with the given categories
      */
-    private void updateCategoriesList() throws ApplicationError {
-        clearCategoriesTable();
-
-        List<Category> categories = InventoryService.getAllCategories();
-
-        for (Category category : categories) {
-            addCategoryToTable(category);
+    private void showCategories(List<Category> categories) {
+        // Drop a button click in progress on a row that is being replaced
+        if (categoriesTable.isEditing()) {
+            categoriesTable.getCellEditor().cancelCellEditing();
         }
+
+        categoriesTableModel.setRows(categories);
     }
 
     private void handleCategoryDeleteById(int categoryId) {
-        try {
-            System.out.println("Attempting to delete the category with id: " + categoryId);
-            String deletedCategory = InventoryService.removeCategory(categoryId);
-            SwingUtilities.invokeLater(() -> {
-                try {
-                    updateCategoriesList();
-                } catch (ApplicationError ex) {
-                    Messages.showError(this, "Application Error", "Unable to refresh category list");
-                }
-            });
-        } catch (ApplicationError | NotFoundError ex) {
-            Messages.showError(this, "Application Error", "An unexpected error occurred while deleting the category");
-        }
+        System.out.println("Attempting to delete the category with id: " + categoryId);
+
+        SwingAsync.onEdt(AsyncServices.removeCategory(categoryId), deletedCategory -> updateCategoriesList(),
+                error -> Messages.showError(this, "Application Error", "An unexpected error occurred while deleting the category"));
     }
 
     /**
-     * Adds a new category to the table.
+     * Creates the delete button of a category's row (when the row is first
+     * shown).
      */
-    private void addCategoryToTable(Category category) {
-        // Get the table's model
-        DefaultTableModel model = (DefaultTableModel) categoriesTable.getModel();
-
-        // Format the ID (makes it three digit)
-        String formattedID = String.format("%03d", category.getId());
-
+    private JButton createDeleteButton(Category category) {
         // Create the delete category button
         JButton deleteBtn = new JButton();
         deleteBtn.setBackground(new java.awt.Color(255, 255, 255));
@@ -306,15 +277,7 @@ public class CategoriesPanel extends javax.swing.JPanel {
         // Click event for the button
         deleteBtn.addActionListener((ActionEvent e) -> handleCategoryDeleteById(category.getId()));
 
-        // Create the data row with the formatted strings and delete item button
-        Object[] rowData = new Object[]{
-            formattedID,
-            category.getName(),
-            deleteBtn
-        };
-
-        // Add the row to the model
-        model.addRow(rowData);
+        return deleteBtn;
     }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -1,20 +1,24 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard;
 
+import dev.shanuka.thesweetcupcakeshop.enums.SalesMetric;
 import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
 import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.service.AuthService;
+import dev.shanuka.thesweetcupcakeshop.service.BestSellers;
 import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
 import dev.shanuka.thesweetcupcakeshop.service.OrderService;
+import dev.shanuka.thesweetcupcakeshop.service.SalesAggregates;
 import dev.shanuka.thesweetcupcakeshop.util.AppConstants;
 import dev.shanuka.thesweetcupcakeshop.util.Fonts;
 import dev.shanuka.thesweetcupcakeshop.util.Helpers;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
+import dev.shanuka.thesweetcupcakeshop.util.OrderTableModel;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import java.time.YearMonth;
-import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.swing.JFrame;
-import javax.swing.table.DefaultTableModel;
 
 /**
  * Dashboard view for user dashboard
@@ -25,6 +29,9 @@ public class DashboardPanel extends javax.swing.JPanel {
     // Parent frame in which the current panel is mounted
     JFrame parentFrame;
     
+    // Orders shown in the recent orders table
+    private final OrderTableModel recentOrdersTableModel = new OrderTableModel();
+    
     /**
      * Creates new form Dashboard
      * 
@@ -44,6 +51,9 @@ public class DashboardPanel extends javax.swing.JPanel {
         // Show greeting to the currently logged in user
         greetingLabel.setText(String.format("Welcome Back, %s!", AuthService.loggedUser.getFirstName()));
         
+        // Show the orders directly (rows are formatted as they are displayed)
+        recentOrdersTable.setModel(recentOrdersTableModel);
+        
         // Format the recent orders table
         Helpers.formatTable(recentOrdersTable);
         
@@ -51,103 +61,82 @@ public class DashboardPanel extends javax.swing.JPanel {
         recentOrdersTable.getColumnModel().getColumn(0).setPreferredWidth(50); // Order ID
         recentOrdersTable.getColumnModel().getColumn(2).setPreferredWidth(400); // Item Name
 
+        // Show the widgets as loading until the data files have been read
+        monthlySalesAmount.setText("Loading...");
+        monthlyOrdersAmount.setText("Loading...");
+        itemsListedAmount.setText("Loading...");
+        averageSaleAmount.setText("Loading...");
+
         // Dashboard data must be updated within the constructor for the first time as formAncestorAdded causes a slight delay
-        try {
-            updateDashboardData();
-        } catch (ApplicationError ex) {
-            Messages.showError(parentFrame, "Application Error", "An unexpected error has occurred while fetching dashboard data");
-        }
+        updateDashboardData();
     }
 
     /**
-     * Updates dashboard data including recent orders table and widget data
+     * Loads dashboard data in the background, then updates the recent orders
+     * table and widgets
      */
-    private void updateDashboardData() throws ApplicationError {
-        // Clear the recent sales table before adding new rows
-        DefaultTableModel model = (DefaultTableModel) recentOrdersTable.getModel(); // Get the table's model
-        model.setRowCount(0);
-        
-        // Load recent sales data (upto 11)
-        try {
-            // Retrieve all orders
-            List<Order> orders = OrderService.getAllOrders();
-
-            // Sort orders by date (newest to oldest)
-            orders.sort((o1, o2) -> o2.getDate().compareTo(o1.getDate()));
-            
-            for (Order order : orders) {
-                if (orders.indexOf(order) == 11) {
-                    break;
-                }
-
-                addOrderToTable(order);
-            }
-        } catch (ApplicationError e) {
-            System.err.println("An error has been occured while retrieving the orders!");
+    private void updateDashboardData() {
+        SwingAsync.onEdt(SwingAsync.whileLoading(recentOrdersTable, AsyncServices.supply(DashboardData::load)), this::showDashboardData,
+                error -> Messages.showError(parentFrame, "Application Error", "An unexpected error has occurred while fetching dashboard data"));
+    }
+
+    /**
+     * Data shown on the dashboard, read together on the I/O thread
+     */
+    private static final class DashboardData {
+
+        private final List<Order> latestOrders;
+        private final SalesAggregates.Totals monthlySales;
+        private final int itemCount;
+        private final List<BestSellers.Entry> bestSellers;
+
+        private DashboardData(List<Order> latestOrders, SalesAggregates.Totals monthlySales, int itemCount, List<BestSellers.Entry> bestSellers) {
+            this.latestOrders = latestOrders;
+            this.monthlySales = monthlySales;
+            this.itemCount = itemCount;
+            this.bestSellers = bestSellers;
         }
 
-        // Update Monthly Sales, Orders Received, Items Listed, and Average Sale Price widgets
-        List<Order> sales = OrderService.getAllOrders();
+        private static DashboardData load() throws ApplicationError {
+            YearMonth currentMonth = YearMonth.now();
+
+            return new DashboardData(
+                    // Recent sales (upto 11, newest to oldest)
+                    OrderService.getLatestOrders(11),
+                    // Sales totals of the current month
+                    OrderService.getMonthlySales(currentMonth),
+                    InventoryService.getAllItems().size(),
+                    // The month's best selling items (by revenue)
+                    OrderService.getBestSellers(currentMonth.atDay(1), currentMonth.plusMonths(1).atDay(1), SalesMetric.REVENUE, 5)
+            );
+        }
+    }
 
-        // Get the current month and year
-        YearMonth currentMonth = YearMonth.now();
+    /**
+     * Updates the recent orders table and widget data
+     */
+    private void showDashboardData(DashboardData data) {
+        // Replace the rows of the recent orders table
+        recentOrdersTableModel.setRows(data.latestOrders);
 
-        // Filter out the orders placed within current month
-        List<Order> monthlyOrders = sales.stream()
-                .filter(order -> {
-                    // Convert the order's Date to a YearMonth object
-                    YearMonth orderMonth = YearMonth.from(
-                            order.getDate().toInstant().atZone(ZoneId.systemDefault())
-                    );
+        // Update Monthly Sales, Orders Received, Items Listed, and Average Sale Price widgets
+        SalesAggregates.Totals monthlySales = data.monthlySales;
 
-                    // Compare it to the current month
-                    return currentMonth.equals(orderMonth);
-                })
-                .collect(Collectors.toList());
+        // Format and display the widget data
+        monthlySalesAmount.setText(AppConstants.NUMBER_FORMAT.format(monthlySales.getSalesAmount().toBigDecimal()) + " LKR");
+        monthlyOrdersAmount.setText(AppConstants.NUMBER_FORMAT.format(monthlySales.getOrderCount()) + " Orders");
+        itemsListedAmount.setText(AppConstants.NUMBER_FORMAT.format(data.itemCount) + " Items");
+        averageSaleAmount.setText(AppConstants.NUMBER_FORMAT.format(monthlySales.getAverageSale().toBigDecimal()) + " LKR");
 
-        // Calculate total monthly sales amount
-        double monthlySalesValue = 0;
+        // List the month's best selling items (by revenue) in the Monthly Sales widget's tooltip
+        StringBuilder bestSellers = new StringBuilder("<html><b>Best sellers this month</b>");
 
-        for (Order order : monthlyOrders) {
-            monthlySalesValue += order.getTotalAmount();
+        for (BestSellers.Entry entry : data.bestSellers) {
+            bestSellers.append("<br>").append(Helpers.escapeHtml(entry.getItem()))
+                    .append(" - ").append(AppConstants.NUMBER_FORMAT.format(Money.ofMinorUnits(entry.getValue()).toBigDecimal())).append(" LKR");
         }
 
-        // Format and display the calculated widget data
-        monthlySalesAmount.setText(AppConstants.NUMBER_FORMAT.format(monthlySalesValue) + " LKR");
-        monthlyOrdersAmount.setText(AppConstants.NUMBER_FORMAT.format(monthlyOrders.size()) + " Orders");
-        itemsListedAmount.setText(AppConstants.NUMBER_FORMAT.format(InventoryService.getAllItems().size()) + " Items");
-        averageSaleAmount.setText(AppConstants.NUMBER_FORMAT.format(monthlySalesValue / monthlyOrders.size()) + " LKR");
-    }
-
-    /**
-     * Adds a new order to the table.
-     */
-    private void addOrderToTable(Order order) {
-        // Get the table's model
-        DefaultTableModel model = (DefaultTableModel) recentOrdersTable.getModel();
-
-        // Format the ID (makes it three digit)
-        String formattedID = String.format("%03d", order.getId());
-
-        //  Format the Date
-        String formattedDate = AppConstants.DATE_FORMAT.format(order.getDate());
-
-        // Format the Currency
-        String formattedPrice = AppConstants.NUMBER_FORMAT.format(order.getItemPrice()) + " LKR";
-        String formattedTotal = AppConstants.NUMBER_FORMAT.format(order.getTotalAmount()) + " LKR";
-
-        // Create the data row with the formatted strings
-        Object[] rowData = new Object[]{
-            formattedID,
-            formattedDate,
-            order.getItem(),
-            formattedPrice,
-            order.getQuantity(),
-            formattedTotal
-        };
-
-        // Add the row to the model
-        model.addRow(rowData);
+        monthlySalesAmount.setToolTipText(bestSellers.append("</html>").toString());
     }
 
     /**
@@ -509,12 +498,8 @@ public class DashboardPanel extends javax.swing.JPanel {
 
     // Event: Refresh dashboard data when the panel is being mounted
     private void formAncestorAdded(javax.swing.event.AncestorEvent evt) {//GEN-FIRST:event_formAncestorAdded
-        try {
-            // Update dashboard data
-            updateDashboardData();
-        } catch (ApplicationError ex) {
-            Messages.showError(parentFrame, "Application Error", "An unexpected error has occurred while fetching dashboard data");
-        }
+        // Update dashboard data
+        updateDashboardData();
     }//GEN-LAST:event_formAncestorAdded
 
 
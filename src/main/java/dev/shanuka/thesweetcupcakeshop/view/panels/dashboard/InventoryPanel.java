@@ -1,25 +1,25 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard;
 
 import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
-import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
 import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
-import dev.shanuka.thesweetcupcakeshop.util.AppConstants;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonCellEditor;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonRenderer;
+import dev.shanuka.thesweetcupcakeshop.util.DebouncedSearch;
 import dev.shanuka.thesweetcupcakeshop.util.Fonts;
 import dev.shanuka.thesweetcupcakeshop.util.Helpers;
+import dev.shanuka.thesweetcupcakeshop.util.ItemTableModel;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
 import dev.shanuka.thesweetcupcakeshop.util.PlaceholderManager;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs.AddItemDialog;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
@@ -29,6 +29,13 @@ public class InventoryPanel extends javax.swing.JPanel {
     // Parent frame in which the current panel is mounted
     JFrame parentFrame;
 
+    // Items shown in the items table (each with a delete button)
+    private final ItemTableModel itemsTableModel = new ItemTableModel(this::createDeleteButton);
+
+    // Runs item searches in the background as the user types
+    private final DebouncedSearch<List<Item>> itemSearch = new DebouncedSearch<>(150, InventoryPanel::findItems, this::showItems,
+            e -> Messages.showError(this, "Application Error", "An unexpected error occurred while searching items"));
+
     /**
      * Creates new form InventoryPanel
      *
@@ -39,6 +46,9 @@ public class InventoryPanel extends javax.swing.JPanel {
         
         initComponents();
 
+        // Show the items directly (rows are formatted as they are displayed)
+        itemsTable.setModel(itemsTableModel);
+
         // Format the items table
         Helpers.formatTable(itemsTable);
 
@@ -56,130 +66,75 @@ public class InventoryPanel extends javax.swing.JPanel {
         updateItemsList();
     }
 
-    
-    /**
- * Clears all rows from the items table and safely restores 
- * the button renderer and editor for the last column.
- */
-private void clearItemsTable() {
-    // Create a fresh model with the same columns
-    DefaultTableModel emptyModel = new DefaultTableModel(
-            new Object[]{"Item ID", "Item Name", "Category", "Price", ""}, 0
-    ) {
-        // Only the last column (button) should be editable
-        @Override
-        public boolean isCellEditable(int row, int column) {
-            return column == 4;
-        }
-    };
-
-    // Assign the new model to the table
-    itemsTable.setModel(emptyModel);
-
-    // Restore button renderer and editor for the last column
-    itemsTable.getColumnModel().getColumn(4).setCellRenderer(new ButtonRenderer());
-    itemsTable.getColumnModel().getColumn(4).setCellEditor(new ButtonCellEditor());
-}
-
-    
     /**
      * Updates the items list by reloading all items from the inventory.
      */
     private void updateItemsList() {
-        clearItemsTable(); // Clear the items table before adding new rows
-
-        try {
-            // Retrieve all items
-            List<Item> items = InventoryService.getAllItems();
-
-            // Sort items alphabetically by name
-            items.sort(Comparator.comparing(
-                    item -> item.getName() != null ? item.getName().toLowerCase() : ""
-            ));
+        itemSearch.submitNow("");
+    }
 
-            // Add items to the table
-            for (Item item : items) {
-                addOrderToTable(item);
-            }
+    /**
+     * Finds the items matching a search query, or all items for an empty
+     * query (runs in the background).
+     *
+     * @param query The search query
+     * @return The matching items, sorted alphabetically by name
+     * @throws ApplicationError if data retrieval fails
+     */
+    private static List<Item> findItems(String query) throws ApplicationError {
+        List<Item> items = query.isBlank()
+                ? InventoryService.getAllItems()
+                // Find the items whose name or category contains any of the keywords
+                : InventoryService.searchItems(query);
+
+        // Sort items alphabetically by name
+        items.sort(Comparator.comparing(
+                item -> item.getName() != null ? item.getName().toLowerCase() : ""
+        ));
+
+        return items;
+    }
 
-        } catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An unexpected error has occurred while fetching items data");
+    /**
+     * Replaces the rows of the items table with the given items.
+     *
+     * @param items Items to show
+     */
+    private void showItems(List<Item> items) {
+        // Drop a button click in progress on a row that is being replaced
+        if (itemsTable.isEditing()) {
+            itemsTable.getCellEditor().cancelCellEditing();
         }
+
+        // Publish all rows with a single table event
+        itemsTableModel.setRows(items);
     }
 
     // Event: Delete button click event for each row
     private void handleItemDelete(Item item) {
-        try {
-            // Delete the selected item
-            String deletedItem = InventoryService.removeItem(item.getId());
-
+        // Delete the selected item
+        SwingAsync.onEdt(AsyncServices.removeItem(item.getId()), deletedItem -> {
             // Show delection successful message
             Messages.showSuccess(this, "Item Deleted Successfully", "The item \"" + deletedItem + "\" has been deleted successfully");
 
             // Refresh the list of items
             updateItemsList();
-        } catch (ApplicationError | NotFoundError ex) {
-            Messages.showError(this, "Application Error", "An unexpected error has occurred while deleting the item");
-        }
+        }, error -> Messages.showError(this, "Application Error", "An unexpected error has occurred while deleting the item"));
     }
 
     /**
-     * Updates the items table based on the given search query.
+     * Updates the items table based on the given search query, once the user
+     * stops typing.
      */
     private void updateSearchResults(String query) {
-        clearItemsTable(); // Clear the items table before adding new rows
-
-        if (query == null || query.isBlank()) {
-            updateItemsList();
-            return;
-        }
-
-        List<String> searchKeywords = List.of(query.split("\\s+"));
-        List<Item> matches = new ArrayList<>();
-
-        try {
-            List<Item> allItems = InventoryService.getAllItems();
-
-            for (Item item : allItems) {
-                String itemName = item.getName() != null ? item.getName().toLowerCase() : "";
-                String category = item.getCategory() != null ? item.getCategory().toLowerCase() : "";
-
-                for (String keyword : searchKeywords) {
-                    keyword = keyword.toLowerCase();
-                    if ((itemName.contains(keyword) || category.contains(keyword)) && !matches.contains(item)) {
-                        matches.add(item);
-                    }
-                }
-            }
-
-            // Sort results alphabetically by name
-            matches.sort(Comparator.comparing(
-                    i -> i.getName() != null ? i.getName().toLowerCase() : ""
-            ));
-
-        } catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An unexpected error occurred while searching items");
-            return;
-        }
-
-        for (Item item : matches) {
-            addOrderToTable(item);
-        }
+        itemSearch.submit(query == null ? "" : query);
     }
 
     /**
-     * Adds a new order to the table.
+     * Creates the delete button of an item's row (when the row is first
+     * shown).
      */
-    private void addOrderToTable(Item item) {
-        // Get the table's model
-        DefaultTableModel model = (DefaultTableModel) itemsTable.getModel();
-
-        // Format the ID (makes it three digit)
-        String formattedID = String.format("%03d", item.getId());
-
-        // Format the Currency
-        String formattedPrice = AppConstants.NUMBER_FORMAT.format(item.getPrice()) + " LKR";
-
+    private JButton createDeleteButton(Item item) {
         // Create the delete item button
         JButton deleteBtn = new JButton();
         deleteBtn.setBackground(new java.awt.Color(255, 255, 255));
@@ -190,17 +145,7 @@ private void clearItemsTable() {
         // Click event for the button
         deleteBtn.addActionListener((ActionEvent e) -> handleItemDelete(item));
 
-        // Create the data row with the formatted strings and delete item button
-        Object[] rowData = new Object[]{
-            formattedID,
-            item.getName(),
-            item.getCategory(),
-            formattedPrice,
-            deleteBtn
-        };
-
-        // Add the row to the model
-        model.addRow(rowData);
+        return deleteBtn;
     }
 
     /**
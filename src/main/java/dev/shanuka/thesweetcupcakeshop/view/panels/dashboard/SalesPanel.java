@@ -1,22 +1,17 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard;
 
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
 import dev.shanuka.thesweetcupcakeshop.model.Order;
-import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
-import dev.shanuka.thesweetcupcakeshop.service.OrderService;
-import dev.shanuka.thesweetcupcakeshop.util.AppConstants;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.util.Fonts;
 import dev.shanuka.thesweetcupcakeshop.util.Helpers;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
+import dev.shanuka.thesweetcupcakeshop.util.OrderTableModel;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs.RecordSaleDialog;
-import java.time.YearMonth;
-import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
@@ -26,6 +21,9 @@ public class SalesPanel extends javax.swing.JPanel {
     // Parent frame in which the current panel is mounted
     JFrame parentFrame;
     
+    // Orders shown in the sales table
+    private final OrderTableModel salesTableModel = new OrderTableModel();
+    
     /**
      * Creates new form SalesPanel
      * 
@@ -36,6 +34,9 @@ public class SalesPanel extends javax.swing.JPanel {
         
         this.parentFrame = parentFrame;
         
+        // Show the orders directly (rows are formatted as they are displayed)
+        salesTable.setModel(salesTableModel);
+        
         // Format the sales table
         Helpers.formatTable(salesTable);
         
@@ -44,68 +45,25 @@ public class SalesPanel extends javax.swing.JPanel {
         salesTable.getColumnModel().getColumn(2).setPreferredWidth(400); // Item Name
         
         // Update data shown in the sales table
-        try {
-            updateSalesData();
-        } catch (ApplicationError ex) {
-            Messages.showError(parentFrame, "Application Error", "An unexpected error has occurred while fetching sales data");
-        }
+        updateSalesData();
     }
     
     /**
-     * Updates sales data
+     * Loads all orders (newest to oldest) in the background, then shows them
+     * in the sales table
      */
-    private void updateSalesData() throws ApplicationError {
-        // Clear the recent sales table before adding new rows
-        DefaultTableModel model = (DefaultTableModel) salesTable.getModel(); // Get the table's model
-        model.setRowCount(0);
-        
-        // Load and display sales data
-        try {
-            // Retrieved all orders
-            List<Order> orders = OrderService.getAllOrders();
-            
-            // Sort orders by date (newest to oldest)
-            orders.sort((o1, o2) -> o2.getDate().compareTo(o1.getDate()));
-
-            for (Order order : orders) {
-                addOrderToTable(order);
-            }
-        } catch (ApplicationError e) {
-            System.err.println("An error has been occured while retrieving the orders!");
-        }
+    private void updateSalesData() {
+        SwingAsync.onEdt(SwingAsync.whileLoading(salesTable, AsyncServices.getLatestOrders(Integer.MAX_VALUE)), this::showSalesData,
+                error -> Messages.showError(parentFrame, "Application Error", "An unexpected error has occurred while fetching sales data"));
     }
     
     /**
-     * Adds a new order to the table.
+     * Replaces the rows of the sales table with the given orders
      */
-    private void addOrderToTable(Order order) {
-        // Get the table's model
-        DefaultTableModel model = (DefaultTableModel) salesTable.getModel();
-
-        // Format the ID (makes it three digit)
-        String formattedID = String.format("%03d", order.getId());
-
-        //  Format the Date
-        String formattedDate = AppConstants.DATE_FORMAT.format(order.getDate());
-
-        // Format the Currency
-        String formattedPrice = AppConstants.NUMBER_FORMAT.format(order.getItemPrice()) + " LKR";
-        String formattedTotal = AppConstants.NUMBER_FORMAT.format(order.getTotalAmount()) + " LKR";
-
-        // Create the data row with the formatted strings
-        Object[] rowData = new Object[]{
-            formattedID,
-            formattedDate,
-            order.getItem(),
-            formattedPrice,
-            order.getQuantity(),
-            formattedTotal
-        };
-
-        // Add the row to the model
-        model.addRow(rowData);
+    private void showSalesData(List<Order> orders) {
+        salesTableModel.setRows(orders);
     }
-
+    
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -261,11 +219,7 @@ public class SalesPanel extends javax.swing.JPanel {
     // Event: Refresh sales data when the panel is being mounted
     private void formAncestorAdded(javax.swing.event.AncestorEvent evt) {//GEN-FIRST:event_formAncestorAdded
         // Update data shown in the sales table
-        try {
-            updateSalesData();
-        } catch (ApplicationError ex) {
-            Messages.showError(parentFrame, "Application Error", "An unexpected error has occurred while fetching sales data");
-        }
+        updateSalesData();
     }//GEN-LAST:event_formAncestorAdded
 
     // Event: When the record sale button is clicked
@@ -275,14 +229,8 @@ public class SalesPanel extends javax.swing.JPanel {
             // Close the record sale modal after the order has been recorded
             dialog.setVisible(false);
             
-            try {
-                // Refresh sales data
-                updateSalesData();
-            }
-            
-            catch(ApplicationError e) {
-                
-            }
+            // Refresh sales data
+            updateSalesData();
         }));
         dialog.pack();
         dialog.setLocationRelativeTo(parentFrame);
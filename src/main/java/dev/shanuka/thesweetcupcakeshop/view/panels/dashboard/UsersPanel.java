@@ -1,14 +1,14 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard;
 
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
-import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
 import dev.shanuka.thesweetcupcakeshop.model.User;
-import dev.shanuka.thesweetcupcakeshop.service.UserService;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonCellEditor;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonRenderer;
 import dev.shanuka.thesweetcupcakeshop.util.Fonts;
 import dev.shanuka.thesweetcupcakeshop.util.Helpers;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
+import dev.shanuka.thesweetcupcakeshop.util.UserTableModel;
 import dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs.AddUserDialog;
 import java.awt.event.ActionEvent;
 import java.util.List;
@@ -16,7 +16,6 @@ import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
-import javax.swing.table.DefaultTableModel;
 
 /**
  * User management tab of the manager dashboard
@@ -28,6 +27,9 @@ public class UsersPanel extends javax.swing.JPanel {
     // Parent frame in which the current panel is mounted
     JFrame parentFrame;
 
+    // Users shown in the users table (each with a delete button)
+    private final UserTableModel usersTableModel = new UserTableModel(this::createDeleteButton);
+
     /**
      * Creates new form UsersPanel
      *
@@ -38,6 +40,9 @@ public class UsersPanel extends javax.swing.JPanel {
 
         initComponents();
 
+        // Show the users directly (rows are formatted as they are displayed)
+        usersTable.setModel(usersTableModel);
+
         // Format the users table
         Helpers.formatTable(usersTable);
 
@@ -50,63 +55,44 @@ public class UsersPanel extends javax.swing.JPanel {
     }
 
     /**
-     * Clears all rows from the users table and safely restores the button renderer and editor for the last column
+     * Loads the latest data from the data store in the background, then
+     * updates the users table.
      */
-    private void clearUsersTable() {
-        DefaultTableModel emptyModel = new DefaultTableModel(
-                new Object[]{"User ID", "Role", "First Name", "Last Name", "Email", "Actions"}, 0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 5; // Only the Delete column is editable
-            }
-        };
-
-        usersTable.setModel(emptyModel);
-
-        // Restore button renderer and editor
-        usersTable.getColumnModel().getColumn(5).setCellRenderer(new ButtonRenderer());
-        usersTable.getColumnModel().getColumn(5).setCellEditor(new ButtonCellEditor());
+    private void updateUsersList() {
+        SwingAsync.onEdt(SwingAsync.whileLoading(usersTable, AsyncServices.getAllUsers()), this::showUsers,
+                error -> JOptionPane.showMessageDialog(this,
+                        "Failed to load users: " + error.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     /**
-     * Updates the users table with the latest data from the data store.
+     * Replaces the rows of the users table with the given users.
      */
-    private void updateUsersList() {
-        clearUsersTable();
-        DefaultTableModel model = (DefaultTableModel) usersTable.getModel();
-
-        try {
-            List<User> users = UserService.getAllUsers();
+    private void showUsers(List<User> users) {
+        // Drop a button click in progress on a row that is being replaced
+        if (usersTable.isEditing()) {
+            usersTable.getCellEditor().cancelCellEditing();
+        }
 
-            for (User user : users) {
-                
-                // Create the delete item button
-                JButton deleteBtn = new JButton();
-                deleteBtn.setBackground(new java.awt.Color(255, 255, 255));
-                deleteBtn.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images/icons/manage_items/delete_item.png")));
-                deleteBtn.setBorder(null);
-                deleteBtn.setPreferredSize(new java.awt.Dimension(28, 28));
-
-                // Click event for the button
-                deleteBtn.addActionListener((ActionEvent e) -> handleDeleteUser(user));
-
-                model.addRow(new Object[]{
-                    user.getId(),
-                    user.getRole(),
-                    user.getFirstName(),
-                    user.getLastName(),
-                    user.getemail(),
-                    deleteBtn
-                });
-            }
+        usersTableModel.setRows(users);
+    }
 
-        } catch (ApplicationError e) {
-            JOptionPane.showMessageDialog(this,
-                    "Failed to load users: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+    /**
+     * Creates the delete button of a user's row (when the row is first shown).
+     */
+    private JButton createDeleteButton(User user) {
+        // Create the delete item button
+        JButton deleteBtn = new JButton();
+        deleteBtn.setBackground(new java.awt.Color(255, 255, 255));
+        deleteBtn.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images/icons/manage_items/delete_item.png")));
+        deleteBtn.setBorder(null);
+        deleteBtn.setPreferredSize(new java.awt.Dimension(28, 28));
+
+        // Click event for the button
+        deleteBtn.addActionListener((ActionEvent e) -> handleDeleteUser(user));
+
+        return deleteBtn;
     }
 
     /**
@@ -126,18 +112,14 @@ public class UsersPanel extends javax.swing.JPanel {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                String deletedUser = UserService.removeUser(userId);
+            SwingAsync.onEdt(AsyncServices.removeUser(userId), deletedUser -> {
                 JOptionPane.showMessageDialog(this,
                         "User \"" + deletedUser + "\" deleted successfully.",
                         "Success",
                         JOptionPane.INFORMATION_MESSAGE);
                 
                 updateUsersList(); // Update the users table
-
-            } catch (NotFoundError |ApplicationError ex) {
-                Messages.showError(this, "Application Error", "An unexpected error occurred while deleting user");
-            }
+            }, error -> Messages.showError(this, "Application Error", "An unexpected error occurred while deleting user"));
         }
     }
 
@@ -1,10 +1,10 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs;
 
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
 import dev.shanuka.thesweetcupcakeshop.exception.DuplicateEntryError;
-import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
 import dev.shanuka.thesweetcupcakeshop.util.PlaceholderManager;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 
 /**
  * Add new categpru dialog for the Categories Panel
@@ -153,21 +153,19 @@ public class AddCategoryDialog extends javax.swing.JPanel {
             return;
         }
         
-        try {
-            // If user has entered a valid category name, add it as a new category
-            InventoryService.addCategory(userInput);
-        }
-        
-        catch (DuplicateEntryError e) {
-            Messages.showError(this, "Duplicate Entry Error", "A category with the given name already exists");
-        }
-        
-        catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An error has been occured while adding the new item");
-        }
-
-        // Run the action passed by the parent form
-        action.run();
+        // If user has entered a valid category name, add it as a new category (the button stays disabled until it is saved)
+        SwingAsync.onEdt(SwingAsync.whileLoading(addCategoryBtn, AsyncServices.addCategory(userInput)),
+                result -> action.run(), // Run the action passed by the parent form
+                error -> {
+                    if (error instanceof DuplicateEntryError) {
+                        Messages.showError(this, "Duplicate Entry Error", "A category with the given name already exists");
+                    } else {
+                        Messages.showError(this, "Application Error", "An error has been occured while adding the new item");
+                    }
+
+                    // Run the action passed by the parent form
+                    action.run();
+                });
     }//GEN-LAST:event_addCategoryBtnActionPerformed
 
     // Event: Category name input has gained focus
@@ -1,10 +1,12 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs;
 
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.model.Category;
 import dev.shanuka.thesweetcupcakeshop.model.Item;
-import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
 import dev.shanuka.thesweetcupcakeshop.util.PlaceholderManager;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
@@ -19,7 +21,7 @@ import javax.swing.JTextField;
  */
 public class AddItemDialog extends javax.swing.JPanel {
     String itemName;
-    Double itemPrice;
+    Money itemPrice;
     
     // Function that closes this dialog and refreshes items list in the parent
     Runnable action;
@@ -42,12 +44,9 @@ public class AddItemDialog extends javax.swing.JPanel {
         itemNameInput.addFocusListener(inputFocusListener);
         itemPriceInput.addFocusListener(inputFocusListener);
         
-        try {
-            // Update the categories list
-            loadCategories();
-        } catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An error has occured while loading the list of categories");
-        }
+        // Update the categories list (the list is disabled until it has been loaded)
+        SwingAsync.onEdt(SwingAsync.whileLoading(categoriesList, AsyncServices.getAllCategories()), this::loadCategories,
+                error -> Messages.showError(this, "Application Error", "An error has occured while loading the list of categories"));
     }
 
     // Focus listener for inputs
@@ -94,7 +93,7 @@ public class AddItemDialog extends javax.swing.JPanel {
         
         try {
             itemName = itemNameInput.getText();
-            itemPrice = Double.parseDouble(itemPriceInput.getText());
+            itemPrice = Money.parse(itemPriceInput.getText());
             
             return true;
         } 
@@ -291,9 +290,9 @@ public class AddItemDialog extends javax.swing.JPanel {
         );
     }// </editor-fold>//GEN-END:initComponents
 
-    private void loadCategories() throws ApplicationError {
-        // Fetch the list of category names
-        List<String> categories = InventoryService.getAllCategories()
+    private void loadCategories(List<Category> allCategories) {
+        // Get the list of category names
+        List<String> categories = allCategories
                 .stream()
                 .map(category -> category.getName())
                 .collect(Collectors.toList());
@@ -324,17 +323,18 @@ public class AddItemDialog extends javax.swing.JPanel {
             ? categoriesList.getSelectedItem().toString()
             : null;
         
-        try {
-            InventoryService.addItem(itemName, selectedCategory, itemPrice);
+        // Save the item in the background (the button stays disabled until it is saved)
+        SwingAsync.onEdt(SwingAsync.whileLoading(addUserButton, AsyncServices.addItem(itemName, selectedCategory, itemPrice)), result -> {
             Messages.showSuccess(this, "Item Added", "The new item has been added to the list of items successfully");
-        }
-        
-        catch (ApplicationError e) {
+            
+            // Run the action passed by the parent form
+            action.run();
+        }, error -> {
             Messages.showError(this, "Application Error", "An error has been occured while adding the new item");
-        }
-        
-        // Run the action passed by the parent form
-        action.run();
+            
+            // Run the action passed by the parent form
+            action.run();
+        });
     }//GEN-LAST:event_addUserButtonActionPerformed
 
     // Event: When anywhere within the item price panel is clicked
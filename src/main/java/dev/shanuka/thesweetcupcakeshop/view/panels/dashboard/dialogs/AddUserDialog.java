@@ -1,11 +1,11 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs;
 
 import dev.shanuka.thesweetcupcakeshop.enums.UserRole;
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
 import dev.shanuka.thesweetcupcakeshop.model.User;
-import dev.shanuka.thesweetcupcakeshop.service.UserService;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
 import dev.shanuka.thesweetcupcakeshop.util.PlaceholderManager;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
@@ -365,13 +365,24 @@ public class AddUserDialog extends javax.swing.JPanel {
         // Abort if any of the input errors have occured
         if(!isValid(firstNameField) || !isValid(lastNameField) || !isValid(newEmailField) || !isValid(newPasswordField)) return;
         
+        UserRole role;
+        
         try {
-            UserService.addUser(
-                    UserRole.valueOf(userRoleSelection.getSelectedItem().toString()), 
+            role = UserRole.valueOf(userRoleSelection.getSelectedItem().toString());
+        }
+        
+        catch(IllegalArgumentException ex) {
+            Messages.showError(this, "Registration Error", "An error has been occured while processing your registration request");
+            return;
+        }
+        
+        // Save the user in the background (the button stays disabled until it is saved)
+        SwingAsync.onEdt(SwingAsync.whileLoading(addUserBtn, AsyncServices.addUser(
+                    role, 
                     firstNameField.getText(), 
                     lastNameField.getText(), 
                     newEmailField.getText(), 
-                    newPasswordField.getText());
+                    newPasswordField.getText())), result -> {
         
             // Show a success message
             Messages.showSuccess(this, "Registration Complete", "The user has been added and can now log in with their credentials.");
@@ -379,11 +390,7 @@ public class AddUserDialog extends javax.swing.JPanel {
             
             // Refresh the list of users on parent panel
             action.run();
-        }
-        
-        catch(ApplicationError | IllegalArgumentException ex) {
-            Messages.showError(this, "Registration Error", "An error has been occured while processing your registration request");
-        }
+        }, error -> Messages.showError(this, "Registration Error", "An error has been occured while processing your registration request"));
     }//GEN-LAST:event_addUserBtnActionPerformed
 
 
@@ -1,19 +1,17 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs;
 
-import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
 import dev.shanuka.thesweetcupcakeshop.model.Item;
 import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.service.AsyncServices;
 import dev.shanuka.thesweetcupcakeshop.service.OrderService;
-import static dev.shanuka.thesweetcupcakeshop.service.OrderService.getAllOrders;
 import dev.shanuka.thesweetcupcakeshop.util.AppConstants;
-import dev.shanuka.thesweetcupcakeshop.util.Helpers;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
+import dev.shanuka.thesweetcupcakeshop.util.SwingAsync;
 import java.awt.Color;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 /**
  * Modal dialog for recording an order
@@ -57,7 +55,7 @@ public class RecordSaleDialog extends javax.swing.JPanel {
         if(orderItem == null) return;
         
         // Total amount = Item price * Quantity
-        totalAmountLabel.setText(AppConstants.CURRENCY_FORMAT.format(orderItem.getPrice() * orderQuantity));
+        totalAmountLabel.setText(AppConstants.CURRENCY_FORMAT.format(orderItem.getPrice().times(orderQuantity).toBigDecimal()));
     }
 
     /**
@@ -69,21 +67,15 @@ public class RecordSaleDialog extends javax.swing.JPanel {
         this.parentFrame = parentFrame;
         this.recordSale = recordSale;
 
-        try {
-            // Get all existing order IDs using a stream
-            List<Integer> orderIds = getAllOrders().stream()
-                    .map(Order::getId)
-                    .collect(Collectors.toList());
-
-            // Generate the next available ID
-            newOrderId = Helpers.generateNextAvailableId(orderIds);
+        // Show the ID the order is expected to get (it is assigned when the order is saved)
+        orderIDLabel.setText("...");
+        
+        SwingAsync.onEdt(AsyncServices.peekNextOrderId(), orderId -> {
+            newOrderId = orderId;
             
             // Update Order ID label
             orderIDLabel.setText(String.format("%03d", newOrderId));
-            
-        } catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An unexpected error has occurred while generating a new Order ID");
-        }
+        }, error -> Messages.showError(this, "Application Error", "An unexpected error has occurred while generating a new Order ID"));
     }
     
     private void showItemSearchModal() {
@@ -393,21 +385,24 @@ public class RecordSaleDialog extends javax.swing.JPanel {
             return;
         }
         
-        try {
-            // Prepare order data to be added
-            Order newOrder = new Order(newOrderId, new Date(), orderItem.getName(), orderItem.getPrice(), orderQuantity, orderItem.getPrice() * orderQuantity);
-            
-            // Add it to the list of orders
-            OrderService.saveOrderData(newOrder);
-        }
+        // Prepare order data to be added (the order ID is assigned when it is saved)
+        Order newOrder = new Order(null, new Date(), orderItem.getName(), orderItem.getPrice(), orderQuantity, orderItem.getPrice().times(orderQuantity));
         
-        catch(Exception e) {
-            Messages.showError(parentFrame, "Application Error", "An unexpected error has been occured while trying to save order data");
+        // Prevent the same sale from being submitted twice while it is being saved
+        recordSaleBtn.setEnabled(false);
+        
+        // Queue it to be added to the list of orders, and continue on the UI thread once it has been saved
+        OrderService.recordOrder(newOrder).whenComplete((order, error) -> SwingUtilities.invokeLater(() -> {
+            recordSaleBtn.setEnabled(true);
             
-            e.printStackTrace();
-        }
-
-        recordSale.run();
+            if(error != null) {
+                Messages.showError(parentFrame, "Application Error", "An unexpected error has been occured while trying to save order data");
+                
+                error.printStackTrace();
+            }
+            
+            recordSale.run();
+        }));
     }//GEN-LAST:event_recordSaleBtnActionPerformed
 
     // Event: When the search item button is clicked
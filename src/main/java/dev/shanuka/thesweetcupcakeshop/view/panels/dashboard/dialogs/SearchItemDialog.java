@@ -5,28 +5,41 @@
 package dev.shanuka.thesweetcupcakeshop.view.panels.dashboard.dialogs;
 
 import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
 import dev.shanuka.thesweetcupcakeshop.model.Item;
 import dev.shanuka.thesweetcupcakeshop.model.Order;
 import dev.shanuka.thesweetcupcakeshop.service.InventoryService;
 import dev.shanuka.thesweetcupcakeshop.util.AppConstants;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonCellEditor;
 import dev.shanuka.thesweetcupcakeshop.util.ButtonRenderer;
+import dev.shanuka.thesweetcupcakeshop.util.DebouncedSearch;
 import dev.shanuka.thesweetcupcakeshop.util.Fonts;
 import dev.shanuka.thesweetcupcakeshop.util.Helpers;
+import dev.shanuka.thesweetcupcakeshop.util.ListTableModel;
 import dev.shanuka.thesweetcupcakeshop.util.Messages;
 import dev.shanuka.thesweetcupcakeshop.util.PlaceholderManager;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import javax.swing.JButton;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
  * @author Shanuka
  */
 public class SearchItemDialog extends javax.swing.JPanel {
+    // Maximum number of items listed in the search results
+    private static final int MAX_RESULTS = 50;
+
+    // Items listed in the search results (each with a select button)
+    private final ListTableModel<Item> searchResultTableModel = new ListTableModel<>(
+            ListTableModel.Column.of("Item Name", String.class, Item::getName),
+            ListTableModel.Column.of("Item Price", String.class, item -> AppConstants.NUMBER_FORMAT.format(item.getPrice().toBigDecimal()) + " LKR"),
+            ListTableModel.Column.button("", this::createSelectButton));
+
+    // Runs item searches in the background as the user types
+    private final DebouncedSearch<List<Item>> itemSearch = new DebouncedSearch<>(150, SearchItemDialog::findItems, this::showResults,
+            e -> Messages.showError(this, "Application Error", "An unexpected error has occurred while fetching item data"));
+
     Function setSelectedItem;
     
     @FunctionalInterface
@@ -46,6 +59,9 @@ public class SearchItemDialog extends javax.swing.JPanel {
 
         this.setSelectedItem = setSelectedItemFunction;
         
+        // Show the items directly (rows are formatted as they are displayed)
+        searchResultTable.setModel(searchResultTableModel);
+        
         // Format the search results table
         Helpers.formatTable(searchResultTable);
 
@@ -63,48 +79,60 @@ public class SearchItemDialog extends javax.swing.JPanel {
     }
 
     /**
-     * Updates search results table based on the given query
+     * Updates search results table based on the given query, once the user
+     * stops typing
      */
     private void updateSearchResult(String query) {
-        // First, clear the search results table before adding new rows
-        DefaultTableModel model = (DefaultTableModel) searchResultTable.getModel(); // Get the table's model
-        model.setRowCount(0);
-        
-        if(query.isBlank()) return; // Skip empty queries
+        itemSearch.submit(query);
+    }
 
-        // Retrieve the list of items that matches the given query
-        List<String> searchKeywords = Arrays.asList(query.split(" "));
+    /**
+     * Finds the items matching a query (runs in the background)
+     *
+     * @param query The search query
+     * @return The best matching items, with an exact name match listed first
+     * @throws ApplicationError if data retrieval fails
+     */
+    private static List<Item> findItems(String query) throws ApplicationError {
+        if (query.isBlank()) {
+            return List.of(); // Skip empty queries
+        }
 
-        List<Item> matches = new ArrayList<Item>();
+        // Rank partial and misspelled matches as the query is typed
+        List<Item> matches = InventoryService.rankItems(query, MAX_RESULTS);
 
         try {
-            for (Item item : InventoryService.getAllItems()) {
-                for (String word : Arrays.asList(item.getName())) {
-                    for (String keyword : searchKeywords) {
-                        if(word.toLowerCase().contains(keyword.toLowerCase()) && !matches.contains(item)) matches.add(item);
-                    }
-                }
-            }
-        } catch (ApplicationError e) {
-            Messages.showError(this, "Application Error", "An unexpected error has occurred while fetching item data");
-        }
-        
-        // Add all matching items to the search result
-        for(Item item : matches) {
-            addResultToTable(item);
+            // List the item whose name matches the query exactly first
+            Item exactMatch = InventoryService.findItemByName(query);
+            matches.removeIf(item -> item.getId().equals(exactMatch.getId()));
+            matches.add(0, exactMatch);
+        } catch (NotFoundError e) {
+            // No item is named exactly like the query
         }
+
+        return matches;
     }
 
     /**
-     * Adds a new order to the table.
+     * Replaces the search results with the given items
+     *
+     * @param matches Items to list
      */
-    private void addResultToTable(Item item) {
-        // Get the table's model
-        DefaultTableModel model = (DefaultTableModel) searchResultTable.getModel();
+    private void showResults(List<Item> matches) {
+        // Drop a button click in progress on a row that is being replaced
+        if (searchResultTable.isEditing()) {
+            searchResultTable.getCellEditor().cancelCellEditing();
+        }
 
-        // Format the item price
-        String formattedPrice = AppConstants.NUMBER_FORMAT.format(item.getPrice()) + " LKR";
-        
+        // Publish all rows with a single table event
+        searchResultTableModel.setRows(matches);
+    }
+
+    /**
+     * Creates the select button of a search result's row (when the row is
+     * first shown).
+     */
+    private JButton createSelectButton(Item item) {
         // Create the select item button
         JButton selectBtn = new JButton();
         selectBtn.setBackground(new java.awt.Color(255, 255, 255));
@@ -115,15 +143,7 @@ public class SearchItemDialog extends javax.swing.JPanel {
         // Click event for the button
         selectBtn.addActionListener((ActionEvent e) -> handleItemSelect(item));
 
-        // Create the data row with the formatted strings and select item button
-        Object[] rowData = new Object[]{
-            item.getName(),
-            formattedPrice,
-            selectBtn
-        };
-
-        // Add the row to the model
-        model.addRow(rowData);
+        return selectBtn;
     }
 
     // Event: Select button click event for each row
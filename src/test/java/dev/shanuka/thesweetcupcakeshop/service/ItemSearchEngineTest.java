@@ -0,0 +1,104 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Result sets and ranking of the typo tolerant item search, combined with
+ * the substring matches of the n-gram index (as InventoryService does).
+ *
+ * @author Shanuka
+ */
+public class ItemSearchEngineTest {
+
+    private final ItemSearchEngine engine = new ItemSearchEngine();
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @BeforeEach
+    public void loadItems() {
+        List<Item> items = List.of(
+                new Item(1, "Chocolate Cupcake", "Cupcakes", Money.parse("350")),
+                new Item(2, "Vanilla Cupcake", "Cupcakes", Money.parse("300")),
+                new Item(3, "Chocolate Chip Cookie", "Cookies", Money.parse("150")),
+                new Item(4, "Red Velvet Cake", "Cakes", Money.parse("4500")),
+                new Item(5, "Lemon Tart", "Pastries", Money.parse("600")),
+                new Item(6, "Carrot Cake", "Cakes", Money.parse("4000")),
+                new Item(7, "Cheesecake", "Cakes", Money.parse("5000")));
+
+        engine.dataLoaded(items);
+        index.dataLoaded(items);
+    }
+
+    @Test
+    public void wordMatchesRankAboveSubstringMatches() {
+        // Every item containing "cake", items with the word "cake" first (equal scores by name)
+        assertEquals(List.of(6, 4, 7, 1, 2), ids(search("cake", Map.of(), 10)));
+    }
+
+    @Test
+    public void substringsInsideWordsAreFound() {
+        assertEquals(List.of(3, 1), ids(search("late", Map.of(), 10)));
+    }
+
+    @Test
+    public void prefixesAreCompleted() {
+        assertEquals(List.of(3), ids(search("cook", Map.of(), 10)));
+        assertEquals(List.of(3, 1), ids(search("choc", Map.of(), 10)));
+    }
+
+    @Test
+    public void misspelledKeywordsMatch() {
+        assertEquals(List.of(2), ids(search("vanila", Map.of(), 10)));
+        assertEquals(List.of(5), ids(search("lemmon", Map.of(), 10)));
+    }
+
+    @Test
+    public void itemsMatchingMoreKeywordsRankFirst() {
+        List<Integer> results = ids(search("chocolate cupcake", Map.of(), 10));
+
+        assertEquals(1, results.get(0));
+        assertTrue(results.containsAll(List.of(2, 3)));
+    }
+
+    @Test
+    public void salesBreakTiesBetweenEqualMatches() {
+        assertEquals(List.of(3, 1), ids(search("chocolate", Map.of(), 10)));
+        assertEquals(List.of(1, 3), ids(search("chocolate", Map.of("Chocolate Cupcake", 50L), 10)));
+    }
+
+    @Test
+    public void resultsAreLimited() {
+        assertEquals(2, search("cake", Map.of(), 2).size());
+        assertEquals(List.of(), search("cake", Map.of(), 0));
+    }
+
+    @Test
+    public void unknownKeywordsMatchNothing() {
+        assertEquals(List.of(), search("xyz", Map.of(), 10));
+        assertEquals(List.of(), search("", Map.of(), 10));
+    }
+
+    @Test
+    public void removedItemsAreNotFound() {
+        Item carrotCake = new Item(6, "Carrot Cake", "Cakes", Money.parse("4000"));
+        engine.objectRemoved(carrotCake);
+        index.objectRemoved(carrotCake);
+
+        assertFalse(ids(search("cake", Map.of(), 10)).contains(6));
+        assertEquals(List.of(), search("carrot", Map.of(), 10));
+    }
+
+    private List<Item> search(String query, Map<String, Long> sales, int limit) {
+        return engine.search(query, index.search(query, false), sales, limit);
+    }
+
+    private static List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Result sets of the n-gram item search, checked against a plain substring
+ * search.
+ *
+ * @author Shanuka
+ */
+public class ItemSearchIndexTest {
+
+    private static final List<Item> ITEMS = List.of(
+            new Item(1, "Chocolate Cupcake", "Cupcakes", Money.parse("350")),
+            new Item(2, "Vanilla Cupcake", "Cupcakes", Money.parse("300")),
+            new Item(3, "Chocolate Chip Cookie", "Cookies", Money.parse("150")),
+            new Item(4, "Red Velvet Cake", "Cakes", Money.parse("4500")),
+            new Item(5, "Lemon Tart", "Pastries", Money.parse("600")),
+            new Item(6, "Carrot Cake", "Cakes", Money.parse("4000")),
+            new Item(7, "Latte Muffin", "Muffins", Money.parse("400")),
+            new Item(8, "Salted Caramel Brownie", null, Money.parse("450")));
+
+    @Test
+    public void resultsMatchASubstringSearch() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        String[] queries = {"c", "ca", "cak", "cake", "late", "chocolate", "CUPCAKE", "et", "velvet cake", "zzz", "cookies", "tart muffin", "l"};
+
+        for (String query : queries) {
+            assertEquals(bruteForce(query, false), ids(index.search(query, false)), "Names matching \"" + query + "\"");
+            assertEquals(bruteForce(query, true), ids(index.search(query, true)), "Names or categories matching \"" + query + "\"");
+        }
+    }
+
+    @Test
+    public void substringsInsideWordsMatch() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        assertEquals(List.of(1, 3), ids(index.search("late", false)));
+        assertEquals(List.of(1, 2, 4, 6), ids(index.search("cake", false)));
+    }
+
+    @Test
+    public void categoriesOnlyMatchWhenIncluded() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        assertEquals(List.of(), ids(index.search("pastries", false)));
+        assertEquals(List.of(5), ids(index.search("pastries", true)));
+    }
+
+    @Test
+    public void blankQueryMatchesNothing() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        assertEquals(List.of(), ids(index.search("   ", true)));
+    }
+
+    @Test
+    public void removedItemsAreNotFound() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        index.objectRemoved(ITEMS.get(0));
+
+        assertEquals(List.of(3), ids(index.search("late", false)));
+        assertEquals(List.of(3), ids(index.search("chocolate", false)));
+    }
+
+    @Test
+    public void addedItemsAreFoundAndReplaceItemsWithTheSameId() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        index.objectsAdded(List.of(new Item(9, "Plum Tart", "Pastries", Money.parse("550")), new Item(5, "Lime Pie", "Pastries", Money.parse("600"))));
+
+        assertEquals(List.of(9), ids(index.search("tart", false)));
+        assertEquals(List.of(5), ids(index.search("lime", false)));
+    }
+
+    @Test
+    public void reloadingReplacesEveryItem() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.dataLoaded(ITEMS);
+
+        index.dataLoaded(List.of(new Item(1, "Apple Pie", "Pies", Money.parse("500"))));
+
+        assertEquals(List.of(), ids(index.search("cupcake", true)));
+        assertEquals(List.of(1), ids(index.search("apple", false)));
+    }
+
+    // Ids of the items containing any keyword of the query, in id order
+    private static List<Integer> bruteForce(String query, boolean includeCategories) {
+        List<Integer> ids = new ArrayList<>();
+
+        for (Item item : ITEMS) {
+            for (String keyword : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+                boolean inName = item.getName().toLowerCase(Locale.ROOT).contains(keyword);
+                boolean inCategory = includeCategories && item.getCategory() != null
+                        && item.getCategory().toLowerCase(Locale.ROOT).contains(keyword);
+
+                if (!keyword.isEmpty() && (inName || inCategory)) {
+                    ids.add(item.getId());
+                    break;
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    private static List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.enums.OrderGrouping;
+import dev.shanuka.thesweetcupcakeshop.enums.SalesMetric;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time ranges and groups of the parallel order aggregation, checked against
+ * a sequential pass over the orders.
+ *
+ * @author Shanuka
+ */
+public class OrderAggregatorTest {
+
+    private static final String[] ITEMS = {"Vanilla Cupcake", "Chocolate Cupcake", "Lemon Tart", "Carrot Cake"};
+
+    @Test
+    public void onlyOrdersWithinTheRangeAreAggregated() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 100, "Lemon Tart", 1), order(2, 200, "Lemon Tart", 2), order(3, 300, "Lemon Tart", 4)));
+
+        Map<Object, SalesStatistics> groups = aggregate(columns, OrderGrouping.ITEM, SalesMetric.QUANTITY, 200, 300);
+
+        assertEquals(1, groups.size());
+        assertEquals(1, groups.get("Lemon Tart").getCount());
+        assertEquals(2, groups.get("Lemon Tart").getSum());
+    }
+
+    @Test
+    public void emptyRangeHasNoGroups() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 100, "Lemon Tart", 1)));
+
+        assertEquals(Map.of(), aggregate(columns, OrderGrouping.ITEM, SalesMetric.QUANTITY, 200, 300));
+        assertEquals(Map.of(), aggregate(columns, OrderGrouping.ITEM, SalesMetric.QUANTITY, 300, 100));
+    }
+
+    @Test
+    public void ordersWithoutADateOrItemAreSkipped() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(
+                new Order(1, null, "Lemon Tart", Money.parse("600"), 1, Money.parse("600")),
+                new Order(2, new Date(100), null, Money.parse("600"), 1, Money.parse("600")),
+                order(3, 100, "Lemon Tart", 3)));
+
+        Map<Object, SalesStatistics> groups = aggregate(columns, OrderGrouping.ITEM, SalesMetric.QUANTITY, 0, 1000);
+
+        assertEquals(1, groups.get("Lemon Tart").getCount());
+        assertEquals(3, groups.get("Lemon Tart").getSum());
+    }
+
+    @Test
+    public void segmentsGiveTheSameResultAsASequentialPass() {
+        Random random = new Random(11);
+        List<Order> orders = new ArrayList<>();
+
+        // Enough orders for several segments, added out of time order
+        for (int id = 1; id <= 20_000; id++) {
+            orders.add(order(id, random.nextInt(1_000_000), ITEMS[random.nextInt(ITEMS.length)], 1 + random.nextInt(10)));
+        }
+
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(orders);
+
+        long from = 250_000;
+        long to = 750_000;
+        Map<Object, SalesStatistics> groups = aggregate(columns, OrderGrouping.ITEM, SalesMetric.REVENUE, from, to);
+
+        Map<Object, long[]> expected = new TreeMap<>();
+        for (Order order : orders) {
+            long time = order.getDate().getTime();
+
+            if (time >= from && time < to) {
+                long[] statistics = expected.computeIfAbsent(order.getItem(), item -> new long[2]);
+                statistics[0]++;
+                statistics[1] += order.getTotalAmount().getMinorUnits();
+            }
+        }
+
+        assertEquals(expected.keySet(), groups.keySet());
+        expected.forEach((item, statistics) -> {
+            assertEquals(statistics[0], groups.get(item).getCount(), item.toString());
+            assertEquals(statistics[1], groups.get(item).getSum(), item.toString());
+        });
+    }
+
+    private static Map<Object, SalesStatistics> aggregate(OrderColumns columns, OrderGrouping grouping, SalesMetric metric, long from, long to) {
+        OrderAggregator aggregator = new OrderAggregator(grouping, metric, Map.of());
+
+        return aggregator.aggregate(columns.snapshot(), Instant.ofEpochMilli(from), Instant.ofEpochMilli(to), ForkJoinPool.commonPool());
+    }
+
+    private static Order order(int id, long time, String item, int quantity) {
+        return new Order(id, new Date(time), item, Money.parse("100"), quantity, Money.parse(String.valueOf(100 * quantity)));
+    }
+}
@@ -0,0 +1,156 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time range queries and snapshots of the order columns.
+ *
+ * @author Shanuka
+ */
+public class OrderColumnsTest {
+
+    @Test
+    public void ordersBetweenAreOldestFirst() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 100), order(2, 200), order(3, 300), order(4, 400)));
+
+        assertEquals(List.of(2, 3), ids(columns.getBetween(at(200), at(400))));
+        assertEquals(List.of(1, 2, 3, 4), ids(columns.getBetween(at(0), at(1000))));
+        assertEquals(List.of(), ids(columns.getBetween(at(400), at(400))));
+    }
+
+    @Test
+    public void latestOrdersAreNewestFirst() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 100), order(2, 200)));
+        columns.objectsAdded(List.of(order(3, 200), order(4, 300)));
+
+        // Orders placed at the same time are listed in reverse order of addition
+        assertEquals(List.of(4, 3, 2), ids(columns.getLatest(3)));
+        assertEquals(List.of(4, 3, 2, 1), ids(columns.getLatest(10)));
+    }
+
+    @Test
+    public void ordersAddedOutOfTimeOrderAreSorted() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 300), order(2, 100)));
+        columns.objectsAdded(List.of(order(3, 200), order(4, 100)));
+
+        assertEquals(List.of(2, 4, 3, 1), ids(columns.getBetween(at(0), at(1000))));
+        assertEquals(List.of(1, 3), ids(columns.getLatest(2)));
+
+        // Appending in time order again after the rows were sorted
+        columns.objectsAdded(List.of(order(5, 400)));
+        assertEquals(List.of(5, 1), ids(columns.getLatest(2)));
+    }
+
+    @Test
+    public void shuffledOrdersAreSortedStably() {
+        Random random = new Random(5);
+        List<Order> orders = new ArrayList<>();
+
+        // Few distinct times, so that many orders share one
+        for (int id = 1; id <= 1000; id++) {
+            orders.add(order(id, random.nextInt(50)));
+        }
+
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1000 + 1, 1000)));
+        columns.objectsAdded(orders);
+
+        List<Integer> expected = new ArrayList<>(ids(orders));
+        expected.sort(Comparator.comparingLong(id -> orders.get(id - 1).getDate().getTime()));
+        expected.add(1000 + 1);
+
+        assertEquals(expected, ids(columns.getBetween(at(0), at(2000))));
+    }
+
+    @Test
+    public void latestWithANonPositiveCountIsEmpty() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 100)));
+
+        assertEquals(List.of(), columns.getLatest(0));
+        assertEquals(List.of(), columns.getLatest(-1));
+    }
+
+    @Test
+    public void removedOrdersAreNotReturned() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 100), order(2, 200), order(3, 300)));
+
+        columns.objectRemoved(order(2, 200));
+
+        assertEquals(List.of(1, 3), ids(columns.getBetween(at(0), at(1000))));
+        assertEquals(List.of(3, 1), ids(columns.getLatest(5)));
+    }
+
+    @Test
+    public void snapshotIsUnaffectedByLaterChanges() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(order(1, 300), order(2, 100)));
+        OrderColumns.Snapshot snapshot = columns.snapshot();
+
+        columns.objectsAdded(List.of(order(3, 50)));
+        columns.objectRemoved(order(2, 100));
+        columns.snapshot();
+
+        assertEquals(2, snapshot.size());
+        assertEquals(2, snapshot.getId(snapshot.getRowByTime(0)));
+        assertEquals(1, snapshot.getId(snapshot.getRowByTime(1)));
+    }
+
+    @Test
+    public void ordersAreRecreatedFromTheColumns() {
+        OrderColumns columns = new OrderColumns();
+        Order order = new Order(7, new Date(1_700_000_000_000L), "Red Velvet", Money.parse("350.50"), 3, Money.parse("1051.50"));
+        columns.dataLoaded(List.of(order));
+
+        Order read = columns.getLatest(1).get(0);
+
+        assertEquals(order.getId(), read.getId());
+        assertEquals(order.getDate(), read.getDate());
+        assertEquals(order.getItem(), read.getItem());
+        assertEquals(order.getItemPrice(), read.getItemPrice());
+        assertEquals(order.getQuantity(), read.getQuantity());
+        assertEquals(order.getTotalAmount(), read.getTotalAmount());
+    }
+
+    @Test
+    public void ordersWithMissingFieldsAreKept() {
+        OrderColumns columns = new OrderColumns();
+        columns.dataLoaded(List.of(new Order(null, null, null, null, null, null), order(1, 100)));
+
+        columns.objectRemoved(new Order());
+
+        // Orders without a date are the oldest
+        List<Order> latest = columns.getLatest(2);
+        assertEquals(1, latest.get(0).getId());
+        assertNull(latest.get(1).getId());
+        assertNull(latest.get(1).getDate());
+        assertNull(latest.get(1).getItem());
+        assertEquals(List.of(1), ids(columns.getBetween(at(0), at(1000))));
+    }
+
+    private static Order order(int id, long time) {
+        return new Order(id, new Date(time), "Vanilla", Money.parse("200"), 1, Money.parse("200"));
+    }
+
+    private static Instant at(long time) {
+        return Instant.ofEpochMilli(time);
+    }
+
+    private static List<Integer> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
+}
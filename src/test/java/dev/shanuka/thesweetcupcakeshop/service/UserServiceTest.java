@@ -0,0 +1,72 @@
+package dev.shanuka.thesweetcupcakeshop.service;
+
+import dev.shanuka.thesweetcupcakeshop.enums.UserRole;
+import dev.shanuka.thesweetcupcakeshop.exception.NotFoundError;
+import dev.shanuka.thesweetcupcakeshop.model.User;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Looking up users by email (as the login form does) as users are added and
+ * removed.
+ *
+ * Runs against data/users.txt in the test working directory.
+ *
+ * @author Shanuka
+ */
+public class UserServiceTest {
+
+    @BeforeAll
+    public static void createUsersFile() throws Exception {
+        Files.createDirectories(Path.of("data"));
+
+        for (String suffix : new String[]{"", ".idx", ".wal", ".tmp"}) {
+            Files.deleteIfExists(Path.of("data/users.txt" + suffix));
+        }
+
+        // Enough users that a single deletion doesn't trigger a compaction (which reloads every user)
+        for (int i = 0; i < 10; i++) {
+            UserService.addUser(UserRole.CASHIER, "User", Integer.toString(i), "user" + i + "@example.com", "secret");
+        }
+    }
+
+    @Test
+    public void addedUserCanLogIn() throws Exception {
+        UserService.addUser(UserRole.CASHIER, "Jane", "Doe", "jane@example.com", "secret");
+
+        User user = UserService.findUser(" Jane@Example.com ");
+
+        assertEquals("Jane", user.getFirstName());
+        assertEquals("secret", user.getpassword());
+    }
+
+    @Test
+    public void deletedUserCannotLogIn() throws Exception {
+        UserService.addUser(UserRole.MANAGER, "John", "Smith", "john@example.com", "secret");
+        User user = UserService.findUser("john@example.com");
+
+        assertEquals("John Smith", UserService.removeUser(user.getId()));
+
+        assertThrows(NotFoundError.class, () -> UserService.findUser("john@example.com"));
+    }
+
+    @Test
+    public void deletingAUserKeepsANewUserWithTheSameEmail() throws Exception {
+        UserService.addUser(UserRole.CASHIER, "Old", "Account", "shared@example.com", "old");
+        User oldUser = UserService.findUser("shared@example.com");
+
+        UserService.addUser(UserRole.CASHIER, "New", "Account", "shared@example.com", "new");
+        UserService.removeUser(oldUser.getId());
+
+        assertEquals("New", UserService.findUser("shared@example.com").getFirstName());
+    }
+
+    @Test
+    public void removingAnUnknownUserIsNotFound() {
+        assertThrows(NotFoundError.class, () -> UserService.removeUser(9999));
+    }
+}
@@ -0,0 +1,224 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.enums.StorageFormat;
+import dev.shanuka.thesweetcupcakeshop.enums.UserRole;
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.model.Item;
+import dev.shanuka.thesweetcupcakeshop.model.Money;
+import dev.shanuka.thesweetcupcakeshop.model.Order;
+import dev.shanuka.thesweetcupcakeshop.model.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips through the binary data file format, for files written with
+ * the current schema (version 2) and with version 1 (amounts as doubles).
+ *
+ * @author Shanuka
+ */
+public class BinaryFormatTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void encodedRecordDecodesToTheSameObject() throws Exception {
+        BinaryFormat<Order> format = new BinaryFormat<>(ModelCodec.of(Order.class));
+        Order order = new Order(7, new Date(1_700_000_000_000L), "Red Velvet", Money.parse("350.50"), 3, Money.parse("1051.50"));
+
+        ByteBuffer record = ByteBuffer.wrap(format.encode(order));
+        int length = BinaryFormat.readRecordLength(record);
+        Order decoded = format.decode(record, format.getSchema());
+
+        assertEquals(0, record.remaining());
+        assertTrue(length > 0);
+        assertOrderEquals(order, decoded);
+    }
+
+    @Test
+    public void nullFieldsStayNull() throws Exception {
+        BinaryFormat<Item> format = new BinaryFormat<>(ModelCodec.of(Item.class));
+        Item item = new Item(1, "Vanilla", null, null);
+
+        ByteBuffer record = ByteBuffer.wrap(format.encode(item));
+        BinaryFormat.readRecordLength(record);
+        Item decoded = format.decode(record, format.getSchema());
+
+        assertEquals("Vanilla", decoded.getName());
+        assertNull(decoded.getCategory());
+        assertNull(decoded.getPrice());
+    }
+
+    @Test
+    public void deletionMarkerHoldsTheDeletedId() {
+        BinaryFormat<Item> format = new BinaryFormat<>(ModelCodec.of(Item.class));
+
+        ByteBuffer record = ByteBuffer.wrap(format.encodeDeletion(300));
+
+        assertEquals(0, BinaryFormat.readRecordLength(record));
+        assertEquals(300, BinaryFormat.readDeletedId(record));
+    }
+
+    @Test
+    public void headerIsReadBackAsTheCurrentSchema() throws Exception {
+        BinaryFormat<User> format = new BinaryFormat<>(ModelCodec.of(User.class));
+        byte[] header = format.getHeader();
+
+        format.readHeader(new DataInputStream(new ByteArrayInputStream(header)));
+
+        assertTrue(format.hasCurrentSchema(header));
+        assertEquals(header.length, format.getHeaderLength());
+    }
+
+    @Test
+    public void storedObjectsAreReadBack() throws Exception {
+        String baseName = dir.resolve("orders").toString();
+        List<Order> orders = List.of(
+                new Order(1, new Date(1_700_000_000_000L), "Vanilla", Money.parse("200"), 1, Money.parse("200")),
+                new Order(2, new Date(1_700_000_100_000L), "Chocolate", Money.parse("0.10"), 30, Money.parse("3")),
+                new Order(3, new Date(1_700_000_200_000L), "Lemon", Money.parse("199.99"), 2, Money.parse("399.98")));
+
+        new DataStore<>(baseName, Order.class, StorageFormat.BINARY).addAll(orders);
+        List<Order> read = new DataStore<>(baseName, Order.class, StorageFormat.BINARY).retrieveData();
+
+        assertEquals(orders.size(), read.size());
+        for (int i = 0; i < orders.size(); i++) {
+            assertOrderEquals(orders.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void enumsAreReadBack() throws Exception {
+        String baseName = dir.resolve("users").toString();
+
+        new DataStore<>(baseName, User.class, StorageFormat.BINARY)
+                .add(new User(1, UserRole.MANAGER, "Jane", "Doe", "jane@example.com", "secret"));
+        User read = new DataStore<>(baseName, User.class, StorageFormat.BINARY).findById(1);
+
+        assertEquals(UserRole.MANAGER, read.getRole());
+        assertEquals("jane@example.com", read.getemail());
+    }
+
+    @Test
+    public void version1AmountsAreReadAsMoney() throws Exception {
+        String baseName = dir.resolve("items").toString();
+        Files.write(Path.of(baseName + ".bin"), version1ItemsFile());
+
+        List<Item> items = new DataStore<>(baseName, Item.class, StorageFormat.BINARY).retrieveData();
+
+        assertEquals(2, items.size());
+        assertEquals(Money.parse("350.50"), items.get(0).getPrice());
+        assertEquals(Money.parse("0.30"), items.get(1).getPrice());
+        assertEquals("Cupcakes", items.get(1).getCategory());
+    }
+
+    @Test
+    public void addingToAVersion1FileRewritesItWithTheCurrentSchema() throws Exception {
+        String baseName = dir.resolve("items").toString();
+        Path file = Path.of(baseName + ".bin");
+        Files.write(file, version1ItemsFile());
+
+        new DataStore<>(baseName, Item.class, StorageFormat.BINARY)
+                .add(new Item(3, "Lemon", "Cupcakes", Money.parse("99.99")));
+
+        BinaryFormat<Item> format = new BinaryFormat<>(ModelCodec.of(Item.class));
+        assertTrue(format.hasCurrentSchema(Files.readAllBytes(file)));
+
+        List<Item> items = new DataStore<>(baseName, Item.class, StorageFormat.BINARY).retrieveData();
+        assertEquals(3, items.size());
+        assertEquals(Money.parse("350.50"), items.get(0).getPrice());
+        assertEquals(Money.parse("99.99"), items.get(2).getPrice());
+    }
+
+    @Test
+    public void newerVersionsAreRejected() throws Exception {
+        String baseName = dir.resolve("items").toString();
+        byte[] file = version1ItemsFile();
+        file[5] = 3; // version (big endian, after the magic)
+        Files.write(Path.of(baseName + ".bin"), file);
+
+        DataStore<Item> store = new DataStore<>(baseName, Item.class, StorageFormat.BINARY);
+
+        assertThrows(ApplicationError.class, store::retrieveData);
+    }
+
+    // Builds an items file as written by version 1 of the format (prices stored as doubles)
+    private static byte[] version1ItemsFile() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        out.writeBytes(new byte[]{'S', 'C', 'S', 'B', 0, 1});
+        writeVarLong(out, 4);
+        writeField(out, "id", 1);
+        writeField(out, "name", 3);
+        writeField(out, "category", 3);
+        writeField(out, "price", 2);
+
+        writeItem(out, 1, "Red Velvet", "Cupcakes", 350.5);
+        writeItem(out, 2, "Sprinkles", "Cupcakes", 0.3);
+
+        return out.toByteArray();
+    }
+
+    private static void writeField(ByteArrayOutputStream out, String name, int type) {
+        writeString(out, name);
+        out.write(type);
+    }
+
+    private static void writeItem(ByteArrayOutputStream out, int id, String name, String category, double price) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+        payload.write(1);
+        writeVarLong(payload, id);
+        payload.write(1);
+        writeString(payload, name);
+        payload.write(1);
+        writeString(payload, category);
+        payload.write(1);
+
+        long bits = Double.doubleToLongBits(price);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            payload.write((int) (bits >>> shift));
+        }
+
+        writeVarLong(out, payload.size());
+        out.writeBytes(payload.toByteArray());
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+
+        out.write((int) zigzag);
+    }
+
+    private static void assertOrderEquals(Order expected, Order actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getDate(), actual.getDate());
+        assertEquals(expected.getItem(), actual.getItem());
+        assertEquals(expected.getItemPrice(), actual.getItemPrice());
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(expected.getTotalAmount(), actual.getTotalAmount());
+    }
+}
@@ -0,0 +1,95 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Edit distance searches of the BK-tree, checked against a linear scan.
+ *
+ * @author Shanuka
+ */
+public class BkTreeTest {
+
+    @Test
+    public void distanceIsTheLevenshteinDistance() {
+        assertEquals(0, BkTree.distance("cake", "cake", 10));
+        assertEquals(1, BkTree.distance("vanila", "vanilla", 10));
+        assertEquals(2, BkTree.distance("flaw", "lawn", 10));
+        assertEquals(3, BkTree.distance("kitten", "sitting", 10));
+        assertEquals(4, BkTree.distance("", "tart", 10));
+    }
+
+    @Test
+    public void distanceGivesUpAboveTheBound() {
+        assertTrue(BkTree.distance("kitten", "sitting", 2) > 2);
+        assertTrue(BkTree.distance("a", "abcdef", 3) > 3);
+        assertEquals(3, BkTree.distance("kitten", "sitting", 3));
+    }
+
+    @Test
+    public void searchFindsTheSameWordsAsALinearScan() {
+        Random random = new Random(3);
+        Set<String> words = new TreeSet<>();
+
+        while (words.size() < 500) {
+            words.add(randomWord(random));
+        }
+
+        BkTree tree = new BkTree();
+        words.forEach(tree::add);
+
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random);
+
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                int bound = maxDistance;
+                Set<String> expected = words.stream()
+                        .filter(word -> BkTree.distance(query, word, Integer.MAX_VALUE) <= bound)
+                        .collect(Collectors.toCollection(TreeSet::new));
+
+                List<BkTree.Match> matches = tree.search(query, maxDistance);
+
+                assertEquals(expected, matches.stream().map(BkTree.Match::getWord).collect(Collectors.toCollection(TreeSet::new)), query);
+                for (BkTree.Match match : matches) {
+                    assertEquals(BkTree.distance(query, match.getWord(), Integer.MAX_VALUE), match.getDistance());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void duplicateWordsAreIgnored() {
+        BkTree tree = new BkTree();
+        tree.add("cake");
+        tree.add("cake");
+
+        assertEquals(1, tree.search("cake", 0).size());
+    }
+
+    @Test
+    public void clearedTreeIsEmpty() {
+        BkTree tree = new BkTree();
+        tree.add("cake");
+        tree.clear();
+
+        assertEquals(List.of(), tree.search("cake", 2));
+    }
+
+    // A short word over a small alphabet, so that many words are close to each other
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(5);
+
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+
+        return word.toString();
+    }
+}
@@ -0,0 +1,187 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.enums.StorageFormat;
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import dev.shanuka.thesweetcupcakeshop.model.Category;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deletion markers (tombstones) and compaction of the data files.
+ *
+ * @author Shanuka
+ */
+public class DataStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void resetErrorHandler() {
+        DataStore.setBackgroundErrorHandler(null);
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageFormat.class)
+    public void deletedObjectsAreNotRead(StorageFormat format) throws Exception {
+        DataStore<Category> store = storeWithCategories(format, 1);
+
+        assertEquals("Muffins", store.delete(2).getName());
+
+        assertNull(store.findById(2));
+        assertEquals(List.of(1, 3), ids(store.retrieveData()));
+
+        // The marker is on disk, not just in memory
+        DataStore<Category> reopened = open(format);
+        assertNull(reopened.findById(2));
+        assertEquals("Cookies", reopened.findById(3).getName());
+        assertEquals(List.of(1, 3), ids(reopened.retrieveData()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageFormat.class)
+    public void deletingAMissingIdDoesNothing(StorageFormat format) throws Exception {
+        DataStore<Category> store = storeWithCategories(format, 1);
+        long size = Files.size(dataFile(format));
+
+        assertNull(store.delete(42));
+        assertEquals(size, Files.size(dataFile(format)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageFormat.class)
+    public void deletedIdsCanBeAddedAgain(StorageFormat format) throws Exception {
+        DataStore<Category> store = storeWithCategories(format, 1);
+
+        store.delete(2);
+        store.add(new Category(2, "Brownies"));
+
+        assertEquals("Brownies", open(format).findById(2).getName());
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageFormat.class)
+    public void compactionDropsDeletedObjectsAndMarkers(StorageFormat format) throws Exception {
+        DataStore<Category> store = storeWithCategories(format, 1);
+        store.delete(1);
+        store.delete(3);
+        long size = Files.size(dataFile(format));
+
+        store.compact();
+
+        assertTrue(Files.size(dataFile(format)) < size);
+        assertEquals(List.of(2), ids(open(format).retrieveData()));
+        assertEquals("Muffins", open(format).findById(2).getName());
+    }
+
+    @Test
+    public void compactionRunsInTheBackgroundAboveTheThreshold() throws Exception {
+        DataStore<Category> store = storeWithCategories(StorageFormat.TEXT, 0.4);
+
+        // 2 live objects and 2 obsolete records
+        store.delete(1);
+
+        awaitTrue(() -> !readText(StorageFormat.TEXT).contains(store.deletionDelimiter));
+        assertEquals(List.of(2, 3), ids(open(StorageFormat.TEXT).retrieveData()));
+        assertNull(store.getCompactionError());
+    }
+
+    @Test
+    public void failedBackgroundCompactionIsReported() throws Exception {
+        CompletableFuture<ApplicationError> reported = new CompletableFuture<>();
+        DataStore.setBackgroundErrorHandler(reported::complete);
+
+        DataStore<Category> store = storeWithCategories(StorageFormat.TEXT, 0.4);
+
+        // The new version of the data file cannot be written
+        Files.createDirectory(Path.of(dataFile(StorageFormat.TEXT) + ".tmp"));
+        store.delete(1);
+
+        ApplicationError error = reported.get(5, TimeUnit.SECONDS);
+        assertTrue(error.getMessage().contains("categories.txt"));
+        awaitTrue(() -> store.getCompactionError() != null);
+
+        // Nothing was lost
+        assertEquals(List.of(2, 3), ids(open(StorageFormat.TEXT).retrieveData()));
+    }
+
+    @Test
+    public void allocatedIdsAreReservedUntilAdded() throws Exception {
+        DataStore<Category> store = storeWithCategories(StorageFormat.TEXT, 1);
+        store.delete(2);
+
+        assertEquals(2, store.allocateId());
+        assertEquals(4, store.allocateId());
+    }
+
+    @Test
+    public void idOfAFailedAddIsReleased() throws Exception {
+        DataStore<Category> store = storeWithCategories(StorageFormat.TEXT, 1);
+        Path logPath = Path.of(dataFile(StorageFormat.TEXT) + ".wal");
+
+        // The append cannot be logged
+        Files.deleteIfExists(logPath);
+        Files.createDirectory(logPath);
+        assertThrows(ApplicationError.class, () -> store.addWithNewId(id -> new Category(id, "Brownies")));
+
+        Files.delete(logPath);
+        assertEquals(4, store.addWithNewId(id -> new Category(id, "Brownies")).getId());
+        assertEquals("Brownies", open(StorageFormat.TEXT).findById(4).getName());
+    }
+
+    // Creates a store holding 3 categories, which is compacted above the given threshold
+    private DataStore<Category> storeWithCategories(StorageFormat format, double compactionThreshold) throws ApplicationError {
+        DataStore<Category> store = open(format);
+        store.setCompactionThreshold(compactionThreshold);
+        store.addAll(List.of(new Category(1, "Cupcakes"), new Category(2, "Muffins"), new Category(3, "Cookies")));
+
+        return store;
+    }
+
+    // Opens the data file again (without compacting it in the background, so the check runs on the file as written)
+    private DataStore<Category> open(StorageFormat format) {
+        DataStore<Category> store = new DataStore<>(dir.resolve("categories").toString(), Category.class, format);
+        store.setCompactionThreshold(1);
+
+        return store;
+    }
+
+    private Path dataFile(StorageFormat format) {
+        return dir.resolve(format == StorageFormat.BINARY ? "categories.bin" : "categories.txt");
+    }
+
+    private String readText(StorageFormat format) {
+        try {
+            return Files.readString(dataFile(format));
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private static List<Integer> ids(List<Category> categories) {
+        return categories.stream().map(Category::getId).toList();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out");
+            }
+
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Escaping of text shown within HTML labels and tooltips.
+ *
+ * @author Shanuka
+ */
+public class HelpersTest {
+
+    @Test
+    public void markupCharactersAreEscaped() {
+        assertEquals("Fish &amp; Chips", Helpers.escapeHtml("Fish & Chips"));
+        assertEquals("&lt;b&gt;Bold&lt;/b&gt; &quot;Cake&quot;", Helpers.escapeHtml("<b>Bold</b> \"Cake\""));
+    }
+
+    @Test
+    public void plainTextIsUnchanged() {
+        assertEquals("Red Velvet Cake", Helpers.escapeHtml("Red Velvet Cake"));
+        assertEquals("", Helpers.escapeHtml(""));
+    }
+}
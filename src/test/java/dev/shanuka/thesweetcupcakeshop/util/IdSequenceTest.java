@@ -0,0 +1,121 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.exception.ApplicationError;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ids handed out by the sequence, across restarts.
+ *
+ * @author Shanuka
+ */
+public class IdSequenceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void newSequenceStartsAfterTheHighestExistingId() throws Exception {
+        IdSequence sequence = new IdSequence(dir.resolve("orders.seq"), 4, () -> 11);
+
+        assertEquals(11, sequence.peek());
+        assertEquals(11, sequence.next());
+        assertEquals(12, sequence.next());
+    }
+
+    @Test
+    public void emptySequenceStartsAtOne() throws Exception {
+        IdSequence sequence = new IdSequence(dir.resolve("orders.seq"), 4, () -> 0);
+
+        assertEquals(1, sequence.next());
+    }
+
+    @Test
+    public void peekDoesNotUseTheId() throws Exception {
+        IdSequence sequence = new IdSequence(dir.resolve("orders.seq"), 4, () -> 1);
+
+        assertEquals(1, sequence.peek());
+        assertEquals(1, sequence.peek());
+        assertEquals(1, sequence.next());
+        assertEquals(2, sequence.peek());
+    }
+
+    @Test
+    public void restartContinuesAfterTheReservedBlock() throws Exception {
+        Path path = dir.resolve("orders.seq");
+
+        IdSequence first = new IdSequence(path, 4, () -> 1);
+        assertEquals(1, first.next());
+        assertEquals(2, first.next());
+
+        // Ids 3 and 4 were reserved but never used
+        IdSequence restarted = new IdSequence(path, 4, () -> 3);
+        assertEquals(5, restarted.next());
+    }
+
+    @Test
+    public void idsAreNeverHandedOutTwiceAcrossRestarts() throws Exception {
+        Path path = dir.resolve("orders.seq");
+        Set<Integer> ids = new HashSet<>();
+
+        for (int restart = 0; restart < 5; restart++) {
+            IdSequence sequence = new IdSequence(path, 3, () -> 1);
+
+            for (int i = 0; i < 7; i++) {
+                assertTrue(ids.add(sequence.next()));
+            }
+        }
+    }
+
+    @Test
+    public void staleSequenceFileContinuesAfterTheHighestExistingId() throws Exception {
+        Path path = dir.resolve("orders.seq");
+        Files.writeString(path, "5");
+
+        // The data holds ids up to 20 (e.g. it was restored without its sequence file)
+        IdSequence sequence = new IdSequence(path, 4, () -> 21);
+
+        assertEquals(21, sequence.next());
+        assertEquals("25", Files.readString(path));
+    }
+
+    @Test
+    public void corruptSequenceFileContinuesAfterTheHighestExistingId() throws Exception {
+        Path path = dir.resolve("orders.seq");
+        Files.writeString(path, "not a number");
+
+        IdSequence sequence = new IdSequence(path, 4, () -> 8);
+
+        assertEquals(8, sequence.peek());
+        assertEquals("8", Files.readString(path));
+        assertEquals(8, sequence.next());
+        assertEquals("12", Files.readString(path));
+    }
+
+    @Test
+    public void emptySequenceFileContinuesAfterTheHighestExistingId() throws Exception {
+        Path path = dir.resolve("orders.seq");
+        Files.writeString(path, "");
+
+        IdSequence sequence = new IdSequence(path, 4, () -> 0);
+
+        assertEquals(1, sequence.next());
+        assertEquals(5, new IdSequence(path, 4, () -> 0).peek());
+    }
+
+    @Test
+    public void unreadableSequenceFileIsAnError() throws Exception {
+        // A directory in place of the file can't be read
+        Path path = Files.createDirectory(dir.resolve("orders.seq"));
+
+        IdSequence sequence = new IdSequence(path, 4, () -> 1);
+
+        assertThrows(ApplicationError.class, sequence::next);
+    }
+}
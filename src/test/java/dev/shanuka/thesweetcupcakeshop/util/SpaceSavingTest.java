@@ -0,0 +1,125 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Error bounds of the Space-Saving heavy hitters summary.
+ *
+ * @author Shanuka
+ */
+public class SpaceSavingTest {
+
+    @Test
+    public void countsAreExactWhileEveryKeyFits() {
+        SpaceSaving<String> summary = new SpaceSaving<>(3);
+        summary.add("vanilla", 2);
+        summary.add("chocolate", 5);
+        summary.add("vanilla", 1);
+        summary.add("lemon", 1);
+
+        List<SpaceSaving.Counter<String>> top = summary.top(3);
+
+        assertEquals(List.of("chocolate", "vanilla", "lemon"), top.stream().map(SpaceSaving.Counter::getKey).toList());
+        assertEquals(List.of(5L, 3L, 1L), top.stream().map(SpaceSaving.Counter::getCount).toList());
+        assertTrue(top.stream().allMatch(counter -> counter.getError() == 0));
+        assertEquals(9, summary.getTotal());
+    }
+
+    @Test
+    public void estimatesStayWithinTheirErrorBounds() {
+        int capacity = 20;
+        SpaceSaving<Integer> summary = new SpaceSaving<>(capacity);
+        Map<Integer, Long> trueCounts = new HashMap<>();
+        Random random = new Random(42);
+
+        // A skewed stream: a few keys are sold far more often than the others
+        for (int i = 0; i < 20_000; i++) {
+            int key = (int) (Math.pow(random.nextDouble(), 3) * 500);
+            long weight = 1 + random.nextInt(5);
+
+            summary.add(key, weight);
+            trueCounts.merge(key, weight, Long::sum);
+        }
+
+        long total = summary.getTotal();
+        List<SpaceSaving.Counter<Integer>> tracked = summary.top(capacity);
+
+        assertEquals(capacity, tracked.size());
+        for (SpaceSaving.Counter<Integer> counter : tracked) {
+            long trueCount = trueCounts.get(counter.getKey());
+
+            // Never underestimated, overestimated by at most the error
+            assertTrue(counter.getCount() >= trueCount);
+            assertTrue(counter.getCount() - counter.getError() <= trueCount);
+
+            // The error is at most total / capacity
+            assertTrue(counter.getError() <= total / capacity);
+        }
+
+        // Every key above total / capacity is tracked
+        Set<Integer> trackedKeys = tracked.stream().map(SpaceSaving.Counter::getKey).collect(Collectors.toSet());
+        trueCounts.forEach((key, count) -> {
+            if (count > total / capacity) {
+                assertTrue(trackedKeys.contains(key), "Heavy hitter " + key + " is not tracked");
+            }
+        });
+    }
+
+    @Test
+    public void topIsOrderedByEstimatedCount() {
+        SpaceSaving<Integer> summary = new SpaceSaving<>(10);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            summary.add(random.nextInt(50), 1);
+        }
+
+        List<SpaceSaving.Counter<Integer>> top = summary.top(5);
+
+        assertEquals(5, top.size());
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getCount() >= top.get(i).getCount());
+        }
+    }
+
+    @Test
+    public void newKeyInheritsTheSmallestCountAsItsError() {
+        SpaceSaving<String> summary = new SpaceSaving<>(2);
+        summary.add("vanilla", 4);
+        summary.add("chocolate", 2);
+        summary.add("lemon", 1);
+
+        SpaceSaving.Counter<String> lemon = summary.top(2).get(1);
+
+        assertEquals("lemon", lemon.getKey());
+        assertEquals(3, lemon.getCount());
+        assertEquals(2, lemon.getError());
+    }
+
+    @Test
+    public void removedOccurrencesAreSubtracted() {
+        SpaceSaving<String> summary = new SpaceSaving<>(2);
+        summary.add("vanilla", 4);
+        summary.add("chocolate", 3);
+
+        summary.remove("vanilla", 2);
+        summary.remove("unknown", 1);
+
+        assertEquals("chocolate", summary.top(1).get(0).getKey());
+        assertEquals(2, summary.top(2).get(1).getCount());
+        assertEquals(4, summary.getTotal());
+    }
+
+    @Test
+    public void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving<String>(0));
+    }
+}
@@ -0,0 +1,149 @@
+package dev.shanuka.thesweetcupcakeshop.util;
+
+import dev.shanuka.thesweetcupcakeshop.enums.StorageFormat;
+import dev.shanuka.thesweetcupcakeshop.model.Category;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replaying the write-ahead log after the application stopped in the middle
+ * of an append.
+ *
+ * @author Shanuka
+ */
+public class WriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void partlyWrittenAppendIsWrittenAgain() throws Exception {
+        Path data = dir.resolve("data.txt");
+        WriteAheadLog log = new WriteAheadLog(dir.resolve("data.txt.wal"));
+        byte[] first = bytes("first record\n");
+        byte[] second = bytes("second record\n");
+
+        log.append(0, first, true);
+        log.append(first.length, second, true);
+
+        // The second append stopped half way
+        Files.write(data, concat(first, bytes("seco")));
+
+        assertEquals(1, log.replay(data));
+        assertEquals("first record\nsecond record\n", Files.readString(data));
+    }
+
+    @Test
+    public void appendMissingFromTheDataFileIsWritten() throws Exception {
+        Path data = dir.resolve("data.txt");
+        WriteAheadLog log = new WriteAheadLog(dir.resolve("data.txt.wal"));
+        byte[] first = bytes("first record\n");
+
+        log.append(0, first, true);
+
+        assertEquals(1, log.replay(data));
+        assertEquals("first record\n", Files.readString(data));
+    }
+
+    @Test
+    public void appliedAppendsAreLeftAlone() throws Exception {
+        Path data = dir.resolve("data.txt");
+        WriteAheadLog log = new WriteAheadLog(dir.resolve("data.txt.wal"));
+        byte[] first = bytes("first record\n");
+
+        log.append(0, first, true);
+        Files.write(data, first);
+
+        assertEquals(0, log.replay(data));
+        assertEquals("first record\n", Files.readString(data));
+    }
+
+    @Test
+    public void entryCutOffWhileLoggingIsIgnored() throws Exception {
+        Path data = dir.resolve("data.txt");
+        Path logPath = dir.resolve("data.txt.wal");
+        WriteAheadLog log = new WriteAheadLog(logPath);
+        byte[] first = bytes("first record\n");
+
+        log.append(0, first, true);
+        log.append(first.length, bytes("second record\n"), true);
+        Files.write(data, first);
+
+        // The application stopped while logging the second append
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertEquals(0, log.replay(data));
+        assertEquals("first record\n", Files.readString(data));
+    }
+
+    @Test
+    public void logThatDoesNotMatchTheDataFileIsNotApplied() throws Exception {
+        Path data = dir.resolve("data.txt");
+        WriteAheadLog log = new WriteAheadLog(dir.resolve("data.txt.wal"));
+
+        log.append(0, bytes("first record\n"), true);
+        log.append(13, bytes("second record\n"), true);
+
+        // The data file was replaced with other content
+        Files.write(data, bytes("other content\n"));
+
+        assertEquals(0, log.replay(data));
+        assertEquals("other content\n", Files.readString(data));
+    }
+
+    @Test
+    public void truncatedLogIsEmpty() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(dir.resolve("data.txt.wal"));
+
+        log.append(0, bytes("first record\n"), true);
+        log.truncate(true);
+
+        assertEquals(0, log.size());
+        assertEquals(0, log.replay(dir.resolve("data.txt")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageFormat.class)
+    public void storeRecoversAppendsInterruptedByACrash(StorageFormat format) throws Exception {
+        String baseName = dir.resolve("categories").toString();
+        Path data = Path.of(baseName + (format == StorageFormat.BINARY ? ".bin" : ".txt"));
+
+        DataStore<Category> store = new DataStore<>(baseName, Category.class, format);
+        store.add(new Category(1, "Cupcakes"));
+        store.add(new Category(2, "Muffins"));
+
+        // Simulate a crash in the middle of writing the second object
+        try (FileChannel channel = FileChannel.open(data, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+
+        DataStore<Category> restarted = new DataStore<>(baseName, Category.class, format);
+
+        assertEquals(List.of("Cupcakes", "Muffins"), restarted.retrieveData().stream().map(Category::getName).toList());
+        assertEquals(0, new WriteAheadLog(Path.of(data + ".wal")).size());
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+}